@@ -0,0 +1,100 @@
+package fr.cvlaminck.builders.query;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure parsing, lookup and serialization of query parameters for small and large queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QueryParametersBenchmark {
+
+    @Param({"3", "64"})
+    public int parameterCount;
+
+    private String query;
+
+    private String lastName;
+
+    private QueryParameters queryParameters;
+
+    private final CountingVisitor visitor = new CountingVisitor();
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parameterCount; i++) {
+            if (i > 0) {
+                sb.append('&');
+            }
+            sb.append("param").append(i).append("=value").append(i);
+        }
+        query = sb.toString();
+        lastName = "param" + (parameterCount - 1);
+        queryParameters = QueryParameters.parse(query);
+    }
+
+    @Benchmark
+    public QueryParameters parse() {
+        return QueryParameters.parse(query);
+    }
+
+    @Benchmark
+    public QueryParameter lookupLast() {
+        return queryParameters.getQueryParameterWithEncodedName(lastName);
+    }
+
+    @Benchmark
+    public String getValueOfLast() {
+        return queryParameters.getValue(lastName);
+    }
+
+    @Benchmark
+    public int iterate() {
+        int count = 0;
+        for (QueryParameter queryParameter : queryParameters) {
+            count += queryParameter.getEncodedName().length();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int iterateIndexed() {
+        int count = 0;
+        for (int i = 0; i < queryParameters.size(); i++) {
+            count += queryParameters.getEncodedNameAt(i).length();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int visit() {
+        visitor.count = 0;
+        QueryParameters.visit(query, visitor);
+        return visitor.count;
+    }
+
+    @Benchmark
+    public String parseAndToString() {
+        return QueryParameters.parse(query).toString();
+    }
+
+    private static class CountingVisitor implements QueryParameterVisitor {
+        int count;
+
+        @Override
+        public void visitQueryParameter(CharSequence query, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+            count += valueEnd - nameStart;
+        }
+    }
+}
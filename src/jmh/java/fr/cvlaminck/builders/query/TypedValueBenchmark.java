@@ -0,0 +1,37 @@
+package fr.cvlaminck.builders.query;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare reading numeric query parameters with the typed accessors to decoding them and parsing the String.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TypedValueBenchmark {
+
+    private final QueryParameters queryParameters = QueryParameters.parse("offset=200&limit=50&since=1500000000000&sort=date");
+
+    @Benchmark
+    public long parseDecodedValues() {
+        return Integer.parseInt(queryParameters.getQueryParameter("limit").getValue())
+                + Long.parseLong(queryParameters.getQueryParameter("since").getValue());
+    }
+
+    @Benchmark
+    public long typedValues() {
+        return queryParameters.getIntValue("limit") + queryParameters.getLongValue("since");
+    }
+
+    @Benchmark
+    public long typedValuesOrElse() {
+        return queryParameters.getIntValueOrElse("limit", 20) + queryParameters.getLongValueOrElse("until", 0);
+    }
+}
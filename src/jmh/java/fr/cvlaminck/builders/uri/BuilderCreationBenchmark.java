@@ -0,0 +1,113 @@
+package fr.cvlaminck.builders.uri;
+
+import fr.cvlaminck.builders.path.PathSegment;
+import fr.cvlaminck.builders.query.QueryName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the cost of creating builders, alone and when building a small uri or an uri with many
+ * query parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BuilderCreationBenchmark {
+
+    private static final PathSegment V2 = PathSegment.of("v2");
+
+    private static final PathSegment ACCOUNTS = PathSegment.of("accounts");
+
+    private static final QueryName ACCESS_TOKEN = QueryName.of("access_token");
+
+    private long userId = 123456789L;
+
+    private int offset = 200;
+
+    private long since = 1500000000000L;
+
+    @Benchmark
+    public UriBuilder newBuilder() {
+        return Uri.newBuilder();
+    }
+
+    @Benchmark
+    public Uri newBuilderAndBuild() {
+        return Uri.newBuilder()
+                .withScheme("https")
+                .withEncodedHost("github.com")
+                .appendEncodedPathSegment("cyr62110")
+                .appendEncodedPathSegment("java-uri-builder")
+                .appendEncodedQueryParameter("tab", "readme")
+                .build();
+    }
+
+    @Benchmark
+    public Uri newBuilderAndBuildWithQueryParameters() {
+        return Uri.newBuilder()
+                .withScheme("https")
+                .withEncodedHost("api.example.com")
+                .appendEncodedPathSegment("search")
+                .appendEncodedQueryParameter("q", "uri")
+                .appendEncodedQueryParameter("page", "2")
+                .appendEncodedQueryParameter("size", "50")
+                .appendEncodedQueryParameter("sort", "date")
+                .appendEncodedQueryParameter("utm_source", "newsletter")
+                .appendEncodedQueryParameter("utm_medium", "email")
+                .appendEncodedQueryParameter("utm_campaign", "launch")
+                .appendEncodedQueryParameter("lang", "fr")
+                .build();
+    }
+
+    @Benchmark
+    public Uri newBuilderAndBuildWithNumbersAsStrings() {
+        return Uri.newBuilder()
+                .withScheme("https")
+                .withEncodedHost("api.example.com")
+                .appendEncodedPathSegment("users")
+                .appendPathSegment(String.valueOf(userId))
+                .appendQueryParameter("offset", String.valueOf(offset))
+                .appendQueryParameter("since", String.valueOf(since))
+                .build();
+    }
+
+    @Benchmark
+    public Uri newBuilderAndBuildWithNumbers() {
+        return Uri.newBuilder()
+                .withScheme("https")
+                .withEncodedHost("api.example.com")
+                .appendEncodedPathSegment("users")
+                .appendPathSegment(userId)
+                .appendQueryParameter("offset", offset)
+                .appendQueryParameter("since", since)
+                .build();
+    }
+
+    @Benchmark
+    public Uri newBuilderAndBuildWithLiterals() {
+        return Uri.newBuilder()
+                .withScheme("https")
+                .withEncodedHost("api.example.com")
+                .appendPathSegment("v2")
+                .appendPathSegment("accounts")
+                .appendQueryParameter("access_token", "abc")
+                .build();
+    }
+
+    @Benchmark
+    public Uri newBuilderAndBuildWithTokens() {
+        return Uri.newBuilder()
+                .withScheme("https")
+                .withEncodedHost("api.example.com")
+                .appendPathSegment(V2)
+                .appendPathSegment(ACCOUNTS)
+                .appendQueryParameter(ACCESS_TOKEN, "abc")
+                .build();
+    }
+}
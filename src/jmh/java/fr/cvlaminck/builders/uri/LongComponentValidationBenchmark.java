@@ -0,0 +1,66 @@
+package fr.cvlaminck.builders.uri;
+
+import fr.cvlaminck.builders.query.QueryParameterValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the validation of query strings and query parameter values of increasing length.
+ * The time per operation should grow linearly with the size of the input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LongComponentValidationBenchmark {
+
+    private final UriValidator uriValidator = new UriValidator();
+
+    private final QueryParameterValidator queryParameterValidator = new QueryParameterValidator();
+
+    @Param({"1024", "65536", "1048576", "16777216"})
+    public int length;
+
+    private String query;
+
+    private String queryParameterValue;
+
+    @Setup
+    public void setUp() {
+        query = repeat("payload=eyJpZCI6NDJ9%2B%2F&", length);
+        queryParameterValue = repeat("QUJDREVGR0hJSktMTU5PUA%2B%2F==", length);
+    }
+
+    @Benchmark
+    public String validateQuery() {
+        uriValidator.validateQuery(query);
+        return query;
+    }
+
+    @Benchmark
+    public String validateFragment() {
+        uriValidator.validateFragment(query);
+        return query;
+    }
+
+    @Benchmark
+    public String validateQueryParameterValue() {
+        queryParameterValidator.validateQueryParameterValue(queryParameterValue);
+        return queryParameterValue;
+    }
+
+    private static String repeat(String pattern, int length) {
+        StringBuilder sb = new StringBuilder(length + pattern.length());
+        while (sb.length() < length) {
+            sb.append(pattern);
+        }
+        return sb.toString();
+    }
+}
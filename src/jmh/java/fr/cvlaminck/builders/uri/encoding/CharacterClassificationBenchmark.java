@@ -0,0 +1,71 @@
+package fr.cvlaminck.builders.uri.encoding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the classification of characters to encode using a list of CharacterSpan
+ * with the lookup table of CharacterSet used by the UriEncoder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CharacterClassificationBenchmark {
+
+    private final static CharacterSpan[] spans = new CharacterSpan[]{
+            CharacterSpan.newRange('a', 'z'),
+            CharacterSpan.newRange('A', 'Z'),
+            CharacterSpan.newRange('0', '9'),
+            CharacterSpan.newSingleCharacter('.'),
+            CharacterSpan.newSingleCharacter('-'),
+            CharacterSpan.newSingleCharacter('_'),
+            CharacterSpan.newSingleCharacter('~')
+    };
+
+    private final static List<CharacterSpan> spanList = Arrays.asList(spans);
+
+    private final static CharacterSet characterSet = CharacterSet.of(spans);
+
+    @Param({"user-42_slug.v2", "This text must be encoded!", "Привет, мир 42 €"})
+    public String input;
+
+    @Benchmark
+    public int characterSpans() {
+        int numberOfCharactersToEncode = 0;
+        for (int i = 0; i < input.length(); i++) {
+            if (shouldEncodeWithSpans(input.charAt(i))) {
+                numberOfCharactersToEncode++;
+            }
+        }
+        return numberOfCharactersToEncode;
+    }
+
+    @Benchmark
+    public int characterSet() {
+        int numberOfCharactersToEncode = 0;
+        for (int i = 0; i < input.length(); i++) {
+            if (!characterSet.contains(input.charAt(i))) {
+                numberOfCharactersToEncode++;
+            }
+        }
+        return numberOfCharactersToEncode;
+    }
+
+    private boolean shouldEncodeWithSpans(char character) {
+        for (CharacterSpan span : spanList) {
+            if (span.contains(character)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package fr.cvlaminck.builders.uri.parser;
+
+import fr.cvlaminck.builders.exception.MalformedUriException;
+import fr.cvlaminck.builders.uri.Uri;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare rejecting malformed uris with the throwing parse method and with tryParse,
+ * like a server validating untrusted request uris would do. parseAndCatch is measured with and without
+ * the stack trace of the exceptions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MalformedUriBenchmark {
+
+    private final UriParser parser = new UriParser();
+
+    @Param({
+            "localhost/index.html",
+            "http://localhost:65536/",
+            "https://api.example.com/v1/users/42/orders?page=2&size=50&sort=date#a#b"
+    })
+    public String uri;
+
+    @Param({"true", "false"})
+    public boolean stackTraceEnabled;
+
+    @Setup
+    public void setUp() {
+        MalformedUriException.setStackTraceEnabled(stackTraceEnabled);
+    }
+
+    @TearDown
+    public void tearDown() {
+        MalformedUriException.setStackTraceEnabled(true);
+    }
+
+    @Benchmark
+    public Uri parseAndCatch() {
+        try {
+            return parser.parse(uri);
+        } catch (MalformedUriException ex) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public ParseResult<Uri> tryParse() {
+        return parser.tryParse(uri);
+    }
+}
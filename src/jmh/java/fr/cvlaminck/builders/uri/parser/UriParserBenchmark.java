@@ -0,0 +1,80 @@
+package fr.cvlaminck.builders.uri.parser;
+
+import fr.cvlaminck.builders.uri.Uri;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the parsing of typical inbound request uris. Run with the gc profiler (-prof gc)
+ * to compare the memory allocated by eager, lazy and compact parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UriParserBenchmark {
+
+    private final UriParser parser = new UriParser();
+
+    @Param({
+            "http://localhost/",
+            "https://api.example.com/v1/users/42/orders?page=2&size=50&sort=date",
+            "https://user:secret@[2001:db8::7]:8443/a/b/c/d/e/f?utm_source=newsletter&utm_medium=email&q=caf%C3%A9#top"
+    })
+    public String uri;
+
+    private byte[] asciiUri;
+
+    @Setup
+    public void setUp() {
+        asciiUri = uri.getBytes(Charset.forName("US-ASCII"));
+    }
+
+    @Benchmark
+    public Uri parse() {
+        return parser.parse(uri);
+    }
+
+    @Benchmark
+    public Uri parseLazily() {
+        return Uri.parseLazily(uri);
+    }
+
+    @Benchmark
+    public String parseLazilyAndGetHost() {
+        return Uri.parseLazily(uri).getAuthority().getEncodedHost();
+    }
+
+    @Benchmark
+    public Uri parseCompact() {
+        return Uri.parseCompact(uri);
+    }
+
+    @Benchmark
+    public String parseCompactAndGetHost() {
+        return Uri.parseCompact(uri).getAuthority().getEncodedHost();
+    }
+
+    @Benchmark
+    public Uri parseAsciiBytes() {
+        return Uri.parse(asciiUri, 0, asciiUri.length);
+    }
+
+    @Benchmark
+    public Uri decodeAndParseAsciiBytes() {
+        return parser.parse(new String(asciiUri, Charset.forName("US-ASCII")));
+    }
+
+    @Benchmark
+    public UriOffsets scan() {
+        return parser.scan(uri);
+    }
+}
@@ -15,8 +15,15 @@
  */
 package fr.cvlaminck.builders.authority;
 
-import fr.cvlaminck.builders.exception.MalformedAuthorityException;
+import fr.cvlaminck.builders.internal.ComponentAccess;
+import fr.cvlaminck.builders.uri.encoding.AsciiCharSequence;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.ParseResult;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 
 /**
  * Representation of the authority part of an URI.
@@ -33,6 +40,12 @@ public class Authority {
     private String host;
     private Integer port;
 
+    //Cached on first use, a race may only compute them twice.
+    private String encodedAuthority;
+    private int hashCode;
+    private String decodedUserInformation;
+    private String decodedHost;
+
     Authority(UriEncoding uriEncoding, String userInformation, String host, Integer port) {
         this.uriEncoding = uriEncoding;
 
@@ -41,6 +54,16 @@ public class Authority {
         this.port = port;
     }
 
+    static {
+        //The uri parser creates authorities from parts it has already checked.
+        ComponentAccess.setAuthorityFactory(new ComponentAccess.AuthorityFactory() {
+            @Override
+            public Authority create(UriEncoding uriEncoding, String userInformation, String host, Integer port) {
+                return new Authority(uriEncoding, userInformation, host, port);
+            }
+        });
+    }
+
     public static Authority emptyHost() {
         return new Authority(UriEncoding.getDefault(), null, "", null);
     }
@@ -54,38 +77,98 @@ public class Authority {
     }
 
     public static Authority parse(String sAuthority) {
+        return parse((CharSequence) sAuthority);
+    }
+
+    /**
+     * Parse the authority contained in the characters of the array between offset and offset + length.
+     */
+    public static Authority parse(char[] sAuthority, int offset, int length) {
+        return parse(CharBuffer.wrap(sAuthority, offset, length));
+    }
+
+    /**
+     * Parse the authority contained in the bytes of the array between offset and offset + length,
+     * read as US-ASCII characters.
+     */
+    public static Authority parse(byte[] sAuthority, int offset, int length) {
+        return parse(AsciiCharSequence.wrap(sAuthority, offset, length));
+    }
+
+    /**
+     * Parse the authority contained in the bytes of the buffer between the absolute index offset and
+     * offset + length, read as US-ASCII characters.
+     */
+    public static Authority parse(ByteBuffer sAuthority, int offset, int length) {
+        return parse(AsciiCharSequence.wrap(sAuthority, offset, length));
+    }
+
+    /**
+     * @see #parse(String)
+     */
+    public static Authority parse(CharSequence sAuthority) {
+        return tryParse(sAuthority).getOrThrow();
+    }
+
+    /**
+     * Parse the authority like {@link #parse(CharSequence)} but returns the error describing the first malformed
+     * part of the authority instead of throwing an exception.
+     */
+    public static ParseResult<Authority> tryParse(CharSequence sAuthority) {
         if (sAuthority == null) {
-            throw new MalformedAuthorityException();
+            return ParseResult.failure(new ParseError(UriComponent.AUTHORITY, ParseError.Reason.EMPTY, 0));
         }
 
-        AuthorityBuilder authorityBuilder = Authority.newBuilder();
+        AuthorityValidator authorityValidator = AuthorityValidator.getInstance();
+        String userInformation = null;
         int currentParsedCharacterIndex = 0;
-        int indexOfUserInfoHostSeparatorCharacter = sAuthority.indexOf(userInformationHostSeparator, currentParsedCharacterIndex);
+        int indexOfUserInfoHostSeparatorCharacter = indexOf(sAuthority, userInformationHostSeparator, currentParsedCharacterIndex);
         if (indexOfUserInfoHostSeparatorCharacter != -1) {
-            authorityBuilder.withEncodedUserInformation(sAuthority.substring(currentParsedCharacterIndex, indexOfUserInfoHostSeparatorCharacter));
+            if (indexOfUserInfoHostSeparatorCharacter > currentParsedCharacterIndex) { //Empty user information is ignored
+                ParseError error = authorityValidator.checkUserInformation(sAuthority, currentParsedCharacterIndex, indexOfUserInfoHostSeparatorCharacter);
+                if (error != null) {
+                    return ParseResult.failure(error);
+                }
+                userInformation = sAuthority.subSequence(currentParsedCharacterIndex, indexOfUserInfoHostSeparatorCharacter).toString();
+            }
             currentParsedCharacterIndex = indexOfUserInfoHostSeparatorCharacter + 1;
         }
         int indexOfHostPortSeparatorCharacter;
         if (currentParsedCharacterIndex < sAuthority.length() &&
                 sAuthority.charAt(currentParsedCharacterIndex) == ipv6PrefixCharacter) { //In case of host being an IPV6 or IPv.Future
-            int indexOfIPV6PostfixCharacter = sAuthority.indexOf(ipv6PostfixCharacter, currentParsedCharacterIndex);
-            indexOfHostPortSeparatorCharacter = sAuthority.indexOf(hostPortSeparator, indexOfIPV6PostfixCharacter + 1);
+            int indexOfIPV6PostfixCharacter = indexOf(sAuthority, ipv6PostfixCharacter, currentParsedCharacterIndex);
+            indexOfHostPortSeparatorCharacter = indexOf(sAuthority, hostPortSeparator, indexOfIPV6PostfixCharacter + 1);
         } else { //For all other host case
-            indexOfHostPortSeparatorCharacter = sAuthority.indexOf(hostPortSeparator, currentParsedCharacterIndex);
+            indexOfHostPortSeparatorCharacter = indexOf(sAuthority, hostPortSeparator, currentParsedCharacterIndex);
         }
         if (indexOfHostPortSeparatorCharacter == -1) {
             indexOfHostPortSeparatorCharacter = sAuthority.length();
         }
-        authorityBuilder.withEncodedHost(sAuthority.substring(currentParsedCharacterIndex, indexOfHostPortSeparatorCharacter));
+        ParseError error = authorityValidator.checkHost(sAuthority, currentParsedCharacterIndex, indexOfHostPortSeparatorCharacter);
+        if (error != null) {
+            return ParseResult.failure(error);
+        }
+        String host = sAuthority.subSequence(currentParsedCharacterIndex, indexOfHostPortSeparatorCharacter).toString();
         currentParsedCharacterIndex = indexOfHostPortSeparatorCharacter + 1;
+        Integer port = null;
         if (currentParsedCharacterIndex <= sAuthority.length()) {
-            try {
-                authorityBuilder.withPort(Integer.parseInt(sAuthority.substring(currentParsedCharacterIndex)));
-            } catch (NumberFormatException ex) {
-                throw new MalformedAuthorityException();
+            error = authorityValidator.checkPort(sAuthority, currentParsedCharacterIndex, sAuthority.length());
+            if (error != null) {
+                return ParseResult.failure(error);
+            }
+            port = Integer.parseInt(sAuthority.subSequence(currentParsedCharacterIndex, sAuthority.length()).toString());
+        }
+        //Every part has been checked above, so they are not validated again by a builder.
+        return ParseResult.success(new Authority(UriEncoding.getDefault(), userInformation, host, port));
+    }
+
+    private static int indexOf(CharSequence input, char character, int fromIndex) {
+        for (int i = Math.max(fromIndex, 0); i < input.length(); i++) {
+            if (input.charAt(i) == character) {
+                return i;
             }
         }
-        return authorityBuilder.build();
+        return -1;
     }
 
     public String getEncodedUserInformation() {
@@ -93,7 +176,12 @@ public class Authority {
     }
 
     public String getUserInformation() {
-        return uriEncoding.decode(userInformation);
+        String decodedUserInformation = this.decodedUserInformation;
+        if (decodedUserInformation == null && userInformation != null) {
+            decodedUserInformation = uriEncoding.decode(userInformation);
+            this.decodedUserInformation = decodedUserInformation;
+        }
+        return decodedUserInformation;
     }
 
     public String getEncodedHost() {
@@ -101,7 +189,12 @@ public class Authority {
     }
 
     public String getHost() {
-        return uriEncoding.decode(host);
+        String decodedHost = this.decodedHost;
+        if (decodedHost == null) {
+            decodedHost = uriEncoding.decode(host);
+            this.decodedHost = decodedHost;
+        }
+        return decodedHost;
     }
 
     public Integer getPort() {
@@ -125,24 +218,48 @@ public class Authority {
 
     @Override
     public int hashCode() {
-        int result = userInformation != null ? userInformation.hashCode() : 0;
-        result = 31 * result + host.hashCode();
-        result = 31 * result + (port != null ? port.hashCode() : 0);
+        int result = hashCode;
+        if (result == 0) {
+            result = userInformation != null ? userInformation.hashCode() : 0;
+            result = 31 * result + host.hashCode();
+            result = 31 * result + (port != null ? port.hashCode() : 0);
+            hashCode = result;
+        }
         return result;
     }
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
+        String encodedAuthority = this.encodedAuthority;
+        if (encodedAuthority == null) {
+            StringBuilder sb = new StringBuilder();
+            render(sb);
+            encodedAuthority = sb.toString();
+            this.encodedAuthority = encodedAuthority;
+        }
+        return encodedAuthority;
+    }
+
+    /**
+     * Append the encoded representation of this authority to the output.
+     */
+    public void appendTo(StringBuilder output) {
+        if (encodedAuthority != null) {
+            output.append(encodedAuthority);
+        } else {
+            render(output);
+        }
+    }
+
+    private void render(StringBuilder output) {
         if (userInformation != null) {
-            sb.append(userInformation);
-            sb.append(userInformationHostSeparator);
+            output.append(userInformation);
+            output.append(userInformationHostSeparator);
         }
-        sb.append(host);
+        output.append(host);
         if (port != null) {
-            sb.append(hostPortSeparator);
-            sb.append(port);
+            output.append(hostPortSeparator);
+            output.append(port.intValue());
         }
-        return sb.toString();
     }
 }
@@ -16,6 +16,7 @@
 package fr.cvlaminck.builders.authority;
 
 import fr.cvlaminck.builders.exception.MalformedAuthorityException;
+import fr.cvlaminck.builders.uri.encoding.EncodingProfile;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
 
 class AuthorityBuilderImpl
@@ -30,7 +31,7 @@ class AuthorityBuilderImpl
     private Integer port;
 
     AuthorityBuilderImpl(UriEncoding uriEncoding) {
-        this.authorityValidator = new AuthorityValidator();
+        this.authorityValidator = AuthorityValidator.getInstance();
         this.uriEncoding = uriEncoding;
     }
 
@@ -55,7 +56,12 @@ class AuthorityBuilderImpl
 
     @Override
     public AuthorityBuilder withUserInformation(String userInformation) {
-        return withEncodedUserInformation(uriEncoding.encode(userInformation));
+        if (userInformation == null || userInformation.isEmpty()) {
+            return withEncodedUserInformation(null);
+        }
+        //The profile only leaves characters allowed in userinfo, no need to validate.
+        this.userInformation = uriEncoding.encode(userInformation, EncodingProfile.USER_INFORMATION);
+        return this;
     }
 
     @Override
@@ -67,7 +73,12 @@ class AuthorityBuilderImpl
 
     @Override
     public AuthorityBuilder withHost(String host) {
-        return withEncodedHost(uriEncoding.encode(host));
+        if (host == null) {
+            throw new MalformedAuthorityException();
+        }
+        //An encoded host is always a valid reg-name.
+        this.host = uriEncoding.encode(host, EncodingProfile.HOST);
+        return this;
     }
 
     @Override
@@ -20,20 +20,25 @@ import fr.cvlaminck.builders.exception.MalformedIpLiteralException;
 import fr.cvlaminck.builders.exception.MalformedIpV4AddressException;
 import fr.cvlaminck.builders.exception.MalformedRegisteredNameException;
 import fr.cvlaminck.builders.uri.UriValidator;
-
-import java.util.regex.Pattern;
+import fr.cvlaminck.builders.uri.encoding.CharacterSets;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
 
 public class AuthorityValidator {
     public final static String IPVFUTURE = "v[0-9A-Fa-f]\\." + UriValidator.UNRESERVED + "|" + UriValidator.SUB_DELIMS + "|:";
 
-    private Pattern userInformationPattern;
-    private Pattern regNamePattern;
-    private Pattern ipvFuturePattern;
+    private final static int MAX_PORT = 65535;
+
+    private final static AuthorityValidator instance = new AuthorityValidator();
 
     public AuthorityValidator() {
-        this.userInformationPattern = Pattern.compile("(" + UriValidator.UNRESERVED + "|" + UriValidator.PCT_ENCODED + "|" + UriValidator.SUB_DELIMS + "|:)+");
-        this.regNamePattern = Pattern.compile("(" + UriValidator.UNRESERVED + "|" + UriValidator.PCT_ENCODED + "|" + UriValidator.SUB_DELIMS + "|:)+");
-        this.ipvFuturePattern = Pattern.compile(IPVFUTURE);
+    }
+
+    /**
+     * Returns the validator for user information and hosts shared by all builders.
+     */
+    public static AuthorityValidator getInstance() {
+        return instance;
     }
 
     /**
@@ -49,11 +54,31 @@ public class AuthorityValidator {
         if (userInformation == null) {
             throw new NullPointerException();
         }
-        if (!userInformationPattern.matcher(userInformation).matches()) {
-            throw new MalformedAuthorityException();
+        validateUserInformation(userInformation, 0, userInformation.length());
+    }
+
+    /**
+     * Validate the user information contained in input between start (inclusive) and end (exclusive).
+     *
+     * @see #validateUserInformation(String)
+     */
+    public void validateUserInformation(CharSequence input, int start, int end) {
+        ParseError error = checkUserInformation(input, start, end);
+        if (error != null) {
+            throw error.toException();
         }
     }
 
+    /**
+     * Check the user information contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the user information is malformed or null if it is valid.
+     * @see #validateUserInformation(String)
+     */
+    public ParseError checkUserInformation(CharSequence input, int start, int end) {
+        return checkUserInformationOrRegName(UriComponent.USER_INFORMATION, input, start, end);
+    }
+
     /**
      * Validate if the value passed as parameter is a valid host according to RFC3986 or
      * throws an MalformedAuthorityException. This function will not check the existence
@@ -65,20 +90,39 @@ public class AuthorityValidator {
         if (host == null) {
             throw new MalformedAuthorityException();
         }
-        if (host.isEmpty()) {
-            return;
-        }
-        if (host.startsWith("[")) {
-            validateIpLiteral(host);
-        } else {
-            try {
-                validateIpV4Address(host);
-            } catch (MalformedIpV4AddressException ex) {
-                validateRegName(host);
-            }
+        validateHost(host, 0, host.length());
+    }
+
+    /**
+     * Validate the host contained in input between start (inclusive) and end (exclusive).
+     *
+     * @see #validateHost(String)
+     */
+    public void validateHost(CharSequence input, int start, int end) {
+        ParseError error = checkHost(input, start, end);
+        if (error != null) {
+            throw error.toException();
         }
     }
 
+    /**
+     * Check the host contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the host is malformed or null if it is valid.
+     * @see #validateHost(String)
+     */
+    public ParseError checkHost(CharSequence input, int start, int end) {
+        if (start == end) {
+            return null;
+        }
+        if (input.charAt(start) == '[') {
+            return checkIpLiteral(input, start, end);
+        } else if (!isIpV4Address(input, start, end)) {
+            return checkRegName(input, start, end);
+        }
+        return null;
+    }
+
     /**
      * Validate if the value passed as parameter is a valid ipv6 address according to RFC3986 or
      * throws an MalformedIpLiteralException.
@@ -93,17 +137,38 @@ public class AuthorityValidator {
         if (host == null) {
             throw new MalformedIpLiteralException();
         }
-        if (!host.startsWith("[") || !host.endsWith("]")) {
-            throw new MalformedIpLiteralException();
+        validateIpLiteral(host, 0, host.length());
+    }
+
+    /**
+     * Validate the ip literal contained in input between start (inclusive) and end (exclusive).
+     *
+     * @see #validateIpLiteral(String)
+     */
+    public void validateIpLiteral(CharSequence input, int start, int end) {
+        ParseError error = checkIpLiteral(input, start, end);
+        if (error != null) {
+            throw error.toException();
         }
-        host = host.substring(1, host.length() - 1);
-        if (host.startsWith("v")) {
-            if (!ipvFuturePattern.matcher(host).matches()) {
-                throw new MalformedIpLiteralException();
-            }
-        } else {
-            validateIpv6Address(host);
+        if (input.charAt(start + 1) != 'v') {
+            validateIpv6Address(input, start + 1, end - 1);
+        }
+    }
+
+    /**
+     * Check the ip literal contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the ip literal is malformed or null if it is valid.
+     * @see #validateIpLiteral(String)
+     */
+    public ParseError checkIpLiteral(CharSequence input, int start, int end) {
+        if (end - start < 2 || input.charAt(start) != '[' || input.charAt(end - 1) != ']') {
+            return new ParseError(UriComponent.IP_LITERAL, ParseError.Reason.INVALID_FORMAT, start);
+        }
+        if (input.charAt(start + 1) == 'v' && !isIpvFuture(input, start + 1, end - 1)) {
+            return new ParseError(UriComponent.IP_LITERAL, ParseError.Reason.INVALID_FORMAT, start);
         }
+        return null;
     }
 
     /**
@@ -130,6 +195,15 @@ public class AuthorityValidator {
      * @throws fr.cvlaminck.builders.exception.MalformedIpV6AddressException if the value passed as parameter is not a valid ip address.
      */
     public void validateIpv6Address(String host) {
+        validateIpv6Address(host, 0, host.length());
+    }
+
+    /**
+     * Validate the ipv6 address contained in input between start (inclusive) and end (exclusive).
+     *
+     * @see #validateIpv6Address(String)
+     */
+    public void validateIpv6Address(CharSequence input, int start, int end) {
         //FIXME
     }
 
@@ -156,18 +230,7 @@ public class AuthorityValidator {
         if (host.isEmpty()) {
             throw new MalformedIpV4AddressException();
         }
-        String[] ipAddressParts = host.split("\\.");
-        if (ipAddressParts.length != 4) {
-            throw new MalformedIpV4AddressException();
-        }
-        try {
-            for (String ipAddressPart : ipAddressParts) {
-                int value = Integer.parseInt(ipAddressPart);
-                if (value < 0 || value > 255) {
-                    throw new MalformedIpV4AddressException();
-                }
-            }
-        } catch (NumberFormatException ex) {
+        if (!isIpV4Address(host, 0, host.length())) {
             throw new MalformedIpV4AddressException();
         }
     }
@@ -187,9 +250,126 @@ public class AuthorityValidator {
         if (host == null) {
             throw new MalformedRegisteredNameException();
         }
-        if (!regNamePattern.matcher(host).matches()) {
-            throw new MalformedRegisteredNameException();
+        validateRegName(host, 0, host.length());
+    }
+
+    /**
+     * Validate the registered name contained in input between start (inclusive) and end (exclusive).
+     *
+     * @see #validateRegName(String)
+     */
+    public void validateRegName(CharSequence input, int start, int end) {
+        ParseError error = checkRegName(input, start, end);
+        if (error != null) {
+            throw error.toException();
+        }
+    }
+
+    /**
+     * Check the registered name contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the registered name is malformed or null if it is valid.
+     * @see #validateRegName(String)
+     */
+    public ParseError checkRegName(CharSequence input, int start, int end) {
+        return checkUserInformationOrRegName(UriComponent.REGISTERED_NAME, input, start, end);
+    }
+
+    /**
+     * Check the port contained in input between start (inclusive) and end (exclusive).
+     * <p/>
+     * Format defined in RFC is : <p/>
+     * port        = *DIGIT <p/>
+     * An empty port is rejected as well as a port greater than 65535.
+     *
+     * @return the error describing why the port is malformed or null if it is valid.
+     */
+    public ParseError checkPort(CharSequence input, int start, int end) {
+        if (start == end) {
+            return new ParseError(UriComponent.PORT, ParseError.Reason.EMPTY, start);
+        }
+        int port = 0;
+        for (int i = start; i < end; i++) {
+            char character = input.charAt(i);
+            if (!CharacterSets.DIGIT.contains(character)) {
+                return new ParseError(UriComponent.PORT, ParseError.Reason.INVALID_CHARACTER, i);
+            }
+            port = port * 10 + (character - '0');
+            if (port > MAX_PORT) {
+                return new ParseError(UriComponent.PORT, ParseError.Reason.OUT_OF_RANGE, start);
+            }
+        }
+        return null;
+    }
+
+    //FIXME: reg-name does not allow ':', it is accepted to stay compatible with previous releases.
+    private static ParseError checkUserInformationOrRegName(UriComponent component, CharSequence input, int start, int end) {
+        if (start == end) {
+            return new ParseError(component, ParseError.Reason.EMPTY, start);
+        }
+        int index = CharacterSets.USER_INFORMATION.indexOfFirstInvalidEncodedCharacter(input, start, end);
+        if (index != -1) {
+            return new ParseError(component, ParseError.Reason.INVALID_CHARACTER, index);
+        }
+        return null;
+    }
+
+    //FIXME: RFC3986 defines IPvFuture as "v" 1*HEXDIG "." 1*( unreserved / sub-delims / ":" ), only the shortest form is accepted for now.
+    private static boolean isIpvFuture(CharSequence host, int start, int end) {
+        return end - start == 4
+                && host.charAt(start) == 'v'
+                && CharacterSets.HEXDIG.contains(host.charAt(start + 1))
+                && host.charAt(start + 2) == '.'
+                && CharacterSets.UNRESERVED.contains(host.charAt(start + 3));
+    }
+
+    /**
+     * Parts are separated by dots, trailing dots are ignored. Each part is parsed the way
+     * Integer.parseInt would do it.
+     */
+    private static boolean isIpV4Address(CharSequence host, int start, int end) {
+        while (end > start && host.charAt(end - 1) == '.') {
+            end--;
+        }
+        if (end == start) {
+            return false;
+        }
+        int numberOfParts = 0;
+        int partStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || host.charAt(i) == '.') {
+                numberOfParts++;
+                if (numberOfParts > 4 || !isDecOctet(host, partStart, i)) {
+                    return false;
+                }
+                partStart = i + 1;
+            }
+        }
+        return numberOfParts == 4;
+    }
+
+    private static boolean isDecOctet(CharSequence host, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (host.charAt(i) == '-' || host.charAt(i) == '+')) {
+            negative = host.charAt(i) == '-';
+            i++;
+        }
+        if (i == end) {
+            return false;
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(host.charAt(i), 10);
+            if (digit < 0) {
+                return false;
+            }
+            value = value * 10 + digit;
+            if (value > 255) {
+                return false;
+            }
         }
+        return !negative || value == 0;
     }
 
 }
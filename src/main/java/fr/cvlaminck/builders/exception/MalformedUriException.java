@@ -15,10 +15,19 @@
  */
 package fr.cvlaminck.builders.exception;
 
+/**
+ * Base class of all exceptions thrown when an uri or one of its components is malformed.
+ * <p/>
+ * Stack traces can be disabled for all those exceptions with {@link #setStackTraceEnabled(boolean)}
+ * or by starting the JVM with -Dfr.cvlaminck.builders.stacklessExceptions=true. Applications rejecting
+ * a lot of malformed input through the throwing API then do not pay for walking the stack on each failure.
+ */
 public class MalformedUriException
         extends RuntimeException {
     private static final String MESSAGE = "Uri format do not match format defined in RFC3986.";
 
+    private static volatile boolean stackTraceEnabled = !Boolean.getBoolean("fr.cvlaminck.builders.stacklessExceptions");
+
     public MalformedUriException() {
         this(MESSAGE);
     }
@@ -31,4 +40,23 @@ public class MalformedUriException
         super(message + " Cause: " + cause);
     }
 
+    /**
+     * Enable or disable the stack trace of exceptions created afterwards, in all threads.
+     */
+    public static void setStackTraceEnabled(boolean enabled) {
+        stackTraceEnabled = enabled;
+    }
+
+    public static boolean isStackTraceEnabled() {
+        return stackTraceEnabled;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        if (!stackTraceEnabled) {
+            return this;
+        }
+        return super.fillInStackTrace();
+    }
+
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.internal;
+
+import fr.cvlaminck.builders.authority.Authority;
+import fr.cvlaminck.builders.path.Path;
+import fr.cvlaminck.builders.uri.Uri;
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+
+/**
+ * Gives the {@code UriParser} access to the package-private constructors of the components, so it creates them
+ * from parts it has already checked without validating them again. This package is not part of the API.
+ * <p/>
+ * Each component registers its factory when its class is initialized. A factory is only accepted from the
+ * component itself and only once.
+ */
+public final class ComponentAccess {
+
+    public interface UriFactory {
+        /**
+         * Empty fragment must be given as null.
+         */
+        Uri create(UriEncoding uriEncoding, String scheme, Authority authority, Path path, String query, String fragment);
+    }
+
+    public interface AuthorityFactory {
+        /**
+         * Empty user information must be given as null.
+         */
+        Authority create(UriEncoding uriEncoding, String userInformation, String host, Integer port);
+    }
+
+    public interface PathFactory {
+        Path create(UriEncoding uriEncoding, boolean absolute, String[] pathSegments);
+    }
+
+    private static volatile UriFactory uriFactory;
+    private static volatile AuthorityFactory authorityFactory;
+    private static volatile PathFactory pathFactory;
+
+    private ComponentAccess() {
+    }
+
+    public static void setUriFactory(UriFactory factory) {
+        checkRegistration(uriFactory, factory, Uri.class);
+        uriFactory = factory;
+    }
+
+    public static void setAuthorityFactory(AuthorityFactory factory) {
+        checkRegistration(authorityFactory, factory, Authority.class);
+        authorityFactory = factory;
+    }
+
+    public static void setPathFactory(PathFactory factory) {
+        checkRegistration(pathFactory, factory, Path.class);
+        pathFactory = factory;
+    }
+
+    public static UriFactory getUriFactory() {
+        if (uriFactory == null) {
+            initialize(Uri.class);
+        }
+        return uriFactory;
+    }
+
+    public static AuthorityFactory getAuthorityFactory() {
+        if (authorityFactory == null) {
+            initialize(Authority.class);
+        }
+        return authorityFactory;
+    }
+
+    public static PathFactory getPathFactory() {
+        if (pathFactory == null) {
+            initialize(Path.class);
+        }
+        return pathFactory;
+    }
+
+    private static void checkRegistration(Object registeredFactory, Object factory, Class<?> component) {
+        if (registeredFactory != null || factory.getClass().getEnclosingClass() != component) {
+            throw new IllegalStateException("Factory of " + component.getSimpleName() + " can only be registered by the component itself");
+        }
+    }
+
+    /**
+     * Factories are registered by static initializers, so initializing the component is enough to get its factory.
+     */
+    private static void initialize(Class<?> component) {
+        try {
+            Class.forName(component.getName(), true, component.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -15,10 +15,17 @@
  */
 package fr.cvlaminck.builders.path;
 
-import fr.cvlaminck.builders.exception.MalformedPathException;
+import fr.cvlaminck.builders.internal.ComponentAccess;
+import fr.cvlaminck.builders.uri.encoding.AsciiCharSequence;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.ParseResult;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -33,6 +40,12 @@ public class Path {
     private List<String> pathSegments;
     private char pathSegmentSeparator;
 
+    //Paths are immutable, the encoded form and hash code are computed on first use like String.hashCode does.
+    private String encodedPath;
+    private int hashCode;
+    //Decoded segments, filled on demand. A slot read as null by another thread is only decoded again.
+    private String[] decodedPathSegments;
+
     private Path(UriEncoding uriEncoding, boolean absolute, char pathSegmentSeparator) {
         this.uriEncoding = uriEncoding;
 
@@ -46,6 +59,16 @@ public class Path {
         this.pathSegments.addAll(pathSegments);
     }
 
+    static {
+        //The uri parser creates paths from segments it has already checked.
+        ComponentAccess.setPathFactory(new ComponentAccess.PathFactory() {
+            @Override
+            public Path create(UriEncoding uriEncoding, boolean absolute, String[] pathSegments) {
+                return new Path(uriEncoding, absolute, Path.pathSegmentSeparatorChar, Arrays.asList(pathSegments));
+            }
+        });
+    }
+
     /**
      * Returns an absolute empty path.
      */
@@ -74,32 +97,87 @@ public class Path {
         return parse(sPath, Path.pathSegmentSeparatorChar);
     }
 
-    private static Path parse(String sPath, char pathSegmentSeparator) {
+    /**
+     * @see #parse(String)
+     */
+    public static Path parse(CharSequence sPath) {
+        return parse(sPath, Path.pathSegmentSeparatorChar);
+    }
+
+    /**
+     * Parse the path contained in the characters of the array between offset and offset + length.
+     */
+    public static Path parse(char[] sPath, int offset, int length) {
+        return parse(CharBuffer.wrap(sPath, offset, length));
+    }
+
+    /**
+     * Parse the path contained in the bytes of the array between offset and offset + length,
+     * read as US-ASCII characters.
+     */
+    public static Path parse(byte[] sPath, int offset, int length) {
+        return parse(AsciiCharSequence.wrap(sPath, offset, length));
+    }
+
+    /**
+     * Parse the path contained in the bytes of the buffer between the absolute index offset and
+     * offset + length, read as US-ASCII characters.
+     */
+    public static Path parse(ByteBuffer sPath, int offset, int length) {
+        return parse(AsciiCharSequence.wrap(sPath, offset, length));
+    }
+
+    /**
+     * Parse the path like {@link #parse(CharSequence)} but returns the error describing the first malformed
+     * path segment instead of throwing an exception.
+     */
+    public static ParseResult<Path> tryParse(CharSequence sPath) {
+        return tryParse(sPath, Path.pathSegmentSeparatorChar);
+    }
+
+    private static Path parse(CharSequence sPath, char pathSegmentSeparator) {
+        return tryParse(sPath, pathSegmentSeparator).getOrThrow();
+    }
+
+    private static ParseResult<Path> tryParse(CharSequence sPath, char pathSegmentSeparator) {
         if (sPath == null) {
-            throw new MalformedPathException();
+            return ParseResult.failure(new ParseError(UriComponent.PATH, ParseError.Reason.EMPTY, 0));
         }
-        PathBuilder pathBuilder = newBuilder();
-        pathBuilder.relative();
+        List<String> pathSegments = new ArrayList<String>();
+        boolean absolute = false;
         int currentParsedCharacterIndex = 0;
         if (sPath.length() != 0) {
             //We parse the first character to determine if sPath is absolute
             if (sPath.charAt(currentParsedCharacterIndex) == pathSegmentSeparator) {
-                pathBuilder.absolute();
+                absolute = true;
                 currentParsedCharacterIndex++;
             }
             //Then we parse all segments.
-            while (currentParsedCharacterIndex < sPath.length()) {
-                int indexOfPathSeparatorCharacter = sPath.indexOf(pathSegmentSeparatorChar, currentParsedCharacterIndex);
-                if (indexOfPathSeparatorCharacter != -1) { //If it is not a trailing path separator character
-                    pathBuilder.appendEncodedPathSegment(sPath.substring(currentParsedCharacterIndex, indexOfPathSeparatorCharacter));
-                    currentParsedCharacterIndex = indexOfPathSeparatorCharacter + 1;
-                } else {
-                    pathBuilder.appendEncodedPathSegment(sPath.substring(currentParsedCharacterIndex, sPath.length()));
-                    currentParsedCharacterIndex = sPath.length();
+            int pathSegmentStart = currentParsedCharacterIndex;
+            ParseError error = null;
+            for (; error == null && currentParsedCharacterIndex < sPath.length(); currentParsedCharacterIndex++) {
+                if (sPath.charAt(currentParsedCharacterIndex) == pathSegmentSeparator) {
+                    error = addPathSegment(pathSegments, sPath, pathSegmentStart, currentParsedCharacterIndex);
+                    pathSegmentStart = currentParsedCharacterIndex + 1;
                 }
             }
+            if (error == null && pathSegmentStart < sPath.length()) { //If it is not a trailing path separator character
+                error = addPathSegment(pathSegments, sPath, pathSegmentStart, sPath.length());
+            }
+            if (error != null) {
+                return ParseResult.failure(error);
+            }
         }
-        return pathBuilder.build();
+        //Segments have been checked above, so they are not validated again by a builder.
+        return ParseResult.success(new Path(UriEncoding.getDefault(), absolute, Path.pathSegmentSeparatorChar, pathSegments));
+    }
+
+    private static ParseError addPathSegment(List<String> pathSegments, CharSequence sPath, int start, int end) {
+        ParseError error = PathValidator.getInstance().check(sPath, start, end);
+        if (error == null) {
+            pathSegments.add(sPath.subSequence(start, end).toString());
+        }
+        return error;
     }
 
     public static PathBuilder newBuilder() {
@@ -172,7 +250,18 @@ public class Path {
      *                                             segments.
      */
     public String getPathSegment(int index) {
-        return uriEncoding.decode(getEncodedPathSegment(index));
+        String encodedPathSegment = getEncodedPathSegment(index);
+        String[] decodedPathSegments = this.decodedPathSegments;
+        if (decodedPathSegments == null) {
+            decodedPathSegments = new String[pathSegments.size()];
+            this.decodedPathSegments = decodedPathSegments;
+        }
+        String pathSegment = decodedPathSegments[index];
+        if (pathSegment == null) {
+            pathSegment = uriEncoding.decode(encodedPathSegment);
+            decodedPathSegments[index] = pathSegment;
+        }
+        return pathSegment;
     }
 
     /**
@@ -219,39 +308,72 @@ public class Path {
 
     @Override
     public int hashCode() {
-        int result = (absolute ? 1 : 0);
-        result = 31 * result + pathSegments.hashCode();
-        result = 31 * result + (int) pathSegmentSeparator;
+        int result = hashCode;
+        if (result == 0) {
+            result = (absolute ? 1 : 0);
+            result = 31 * result + pathSegments.hashCode();
+            result = 31 * result + (int) pathSegmentSeparator;
+            hashCode = result;
+        }
         return result;
     }
 
     @Override
     public String toString() {
-        return toString(FormattingOptions.defaultOptions());
+        String encodedPath = this.encodedPath;
+        if (encodedPath == null) {
+            StringBuilder sb = new StringBuilder();
+            appendTo(sb, false, false);
+            encodedPath = sb.toString();
+            this.encodedPath = encodedPath;
+        }
+        return encodedPath;
     }
 
     public String toString(FormattingOptions options) {
+        if (!options.withoutRoot && !options.nonEncoded) {
+            return toString();
+        }
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb, options);
+        return sb.toString();
+    }
+
+    /**
+     * Append the encoded representation of this path to the output.
+     */
+    public void appendTo(StringBuilder output) {
+        if (encodedPath != null) {
+            output.append(encodedPath);
+        } else {
+            appendTo(output, false, false);
+        }
+    }
+
+    /**
+     * Append the representation of this path, formatted according to the options, to the output.
+     */
+    public void appendTo(StringBuilder output, FormattingOptions options) {
         if (options == null) {
             throw new NullPointerException();
         }
-        StringBuilder sb = new StringBuilder();
-        if (absolute && !options.withoutRoot) {
-            sb.append(pathSegmentSeparatorChar);
+        appendTo(output, options.withoutRoot, options.nonEncoded);
+    }
+
+    private void appendTo(StringBuilder output, boolean withoutRoot, boolean nonEncoded) {
+        if (absolute && !withoutRoot) {
+            output.append(pathSegmentSeparatorChar);
         }
         for (int i = 0; i < pathSegments.size(); i++) {
             if (i != 0) {
-                sb.append(pathSegmentSeparatorChar);
+                output.append(pathSegmentSeparatorChar);
             }
-
-            String pathSegment;
-            if (!options.nonEncoded) {
-                pathSegment = getEncodedPathSegment(i);
+            if (!nonEncoded) {
+                output.append(pathSegments.get(i));
             } else {
-                pathSegment = getPathSegment(i);
+                uriEncoding.decodeTo(pathSegments.get(i), output);
             }
-            sb.append(pathSegment);
         }
-        return sb.toString();
     }
 
     public static class FormattingOptions {
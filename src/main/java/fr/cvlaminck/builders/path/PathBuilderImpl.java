@@ -15,6 +15,8 @@
  */
 package fr.cvlaminck.builders.path;
 
+import fr.cvlaminck.builders.exception.MalformedPathSegmentException;
+import fr.cvlaminck.builders.uri.encoding.EncodingProfile;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
 
 import java.util.ArrayList;
@@ -34,7 +36,7 @@ class PathBuilderImpl
     PathBuilderImpl(UriEncoding uriEncoding, Path path) {
         this(uriEncoding);
         for (int i = 0; i < path.getPathSegmentCount(); i++) {
-            pathSegments.add(path.getPathSegment(i));
+            pathSegments.add(path.getEncodedPathSegment(i));
         }
         this.absolute = path.isAbsolute();
         this.pathSegmentSeparatorCharacter = path.getPathSegmentSeparator();
@@ -42,7 +44,7 @@ class PathBuilderImpl
 
     PathBuilderImpl(UriEncoding uriEncoding) {
         this.uriEncoding = uriEncoding;
-        this.pathValidator = new PathValidator();
+        this.pathValidator = PathValidator.getInstance();
         this.pathSegments = new ArrayList<String>();
         this.absolute = true;
         this.pathSegmentSeparatorCharacter = Path.pathSegmentSeparatorChar;
@@ -62,7 +64,12 @@ class PathBuilderImpl
 
     @Override
     public PathBuilder appendPathSegment(String pathSegment) {
-        return appendEncodedPathSegment(uriEncoding.encode(pathSegment));
+        if (pathSegment == null || pathSegment.isEmpty()) {
+            throw new MalformedPathSegmentException();
+        }
+        //An encoded segment only contains pchar, so it is not validated again.
+        pathSegments.add(uriEncoding.encode(pathSegment, EncodingProfile.PATH_SEGMENT));
+        return this;
     }
 
     @Override
@@ -72,6 +79,18 @@ class PathBuilderImpl
         return this;
     }
 
+    @Override
+    public PathBuilder appendPathSegment(long pathSegment) {
+        pathSegments.add(Long.toString(pathSegment));
+        return this;
+    }
+
+    @Override
+    public PathBuilder appendPathSegment(PathSegment pathSegment) {
+        pathSegments.add(pathSegment.getEncodedSegment());
+        return this;
+    }
+
     @Override
     public PathBuilder appendPath(Path path) {
         if (path.isAbsolute()) {
@@ -52,6 +52,22 @@ public interface PathBuilderOperations<Builder> {
      */
     public Builder appendEncodedPathSegment(String pathSegment);
 
+    /**
+     * Append the decimal representation of the number as a new segment at the end of the path.
+     * Digits and the minus sign never need to be encoded, so the segment is neither encoded nor validated.
+     *
+     * @return the current PathBuilder
+     */
+    public Builder appendPathSegment(long pathSegment);
+
+    /**
+     * Append a segment that has been encoded and validated when it was created. The segment keeps
+     * the encoding it has been created with.
+     *
+     * @return the current PathBuilder
+     */
+    public Builder appendPathSegment(PathSegment pathSegment);
+
     /**
      * Remove the i-th segment.
      *
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.path;
+
+import fr.cvlaminck.builders.exception.MalformedPathSegmentException;
+import fr.cvlaminck.builders.uri.encoding.EncodedToken;
+import fr.cvlaminck.builders.uri.encoding.EncodingProfile;
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+
+/**
+ * Path segment meant to be kept in a constant and appended many times with
+ * {@link PathBuilderOperations#appendPathSegment(PathSegment)}. Reserved characters, including the '/'
+ * separator, are escaped once when the segment is created.
+ */
+public final class PathSegment
+        extends EncodedToken {
+
+    private PathSegment(String encodedSegment) {
+        super(encodedSegment);
+    }
+
+    /**
+     * Create a segment from its decoded value, encoded with the default {@link UriEncoding}.
+     *
+     * @throws fr.cvlaminck.builders.exception.MalformedPathSegmentException if segment is null or empty.
+     */
+    public static PathSegment of(String segment) {
+        return of(segment, UriEncoding.getDefault());
+    }
+
+    /**
+     * Create a segment from its decoded value, encoded with the provided uriEncoding.
+     *
+     * @throws fr.cvlaminck.builders.exception.MalformedPathSegmentException if segment is null or empty.
+     */
+    public static PathSegment of(String segment, UriEncoding uriEncoding) {
+        if (segment == null || segment.isEmpty()) {
+            throw new MalformedPathSegmentException();
+        }
+        return new PathSegment(uriEncoding.encode(segment, EncodingProfile.PATH_SEGMENT));
+    }
+
+    /**
+     * Create a segment from an already encoded value.
+     *
+     * @throws fr.cvlaminck.builders.exception.MalformedPathSegmentException if encodedSegment do not respect
+     *                                                                       the format defined in RFC3986.
+     */
+    public static PathSegment ofEncoded(String encodedSegment) {
+        PathValidator.getInstance().validate(encodedSegment);
+        return new PathSegment(encodedSegment);
+    }
+
+    public String getEncodedSegment() {
+        return getEncodedValue();
+    }
+}
@@ -16,15 +16,22 @@
 package fr.cvlaminck.builders.path;
 
 import fr.cvlaminck.builders.exception.MalformedPathSegmentException;
-import fr.cvlaminck.builders.uri.UriValidator;
-
-import java.util.regex.Pattern;
+import fr.cvlaminck.builders.uri.encoding.CharacterSets;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
 
 public class PathValidator {
-    private Pattern pathSegmentPattern;
+
+    private final static PathValidator instance = new PathValidator();
 
     public PathValidator() {
-        pathSegmentPattern = Pattern.compile("(" + UriValidator.PCHAR + ")+");
+    }
+
+    /**
+     * Returns the validator for path segments shared by all builders.
+     */
+    public static PathValidator getInstance() {
+        return instance;
     }
 
     /**
@@ -41,9 +48,36 @@ public class PathValidator {
         if (pathSegment == null) {
             throw new MalformedPathSegmentException();
         }
-        if (!pathSegmentPattern.matcher(pathSegment).matches()) {
-            throw new MalformedPathSegmentException();
+        validate(pathSegment, 0, pathSegment.length());
+    }
+
+    /**
+     * Validate the path segment contained in input between start (inclusive) and end (exclusive).
+     *
+     * @see #validate(String)
+     */
+    public void validate(CharSequence input, int start, int end) throws MalformedPathSegmentException {
+        ParseError error = check(input, start, end);
+        if (error != null) {
+            throw error.toException();
+        }
+    }
+
+    /**
+     * Check the path segment contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the path segment is malformed or null if it is valid.
+     * @see #validate(String)
+     */
+    public ParseError check(CharSequence input, int start, int end) {
+        if (start == end) {
+            return new ParseError(UriComponent.PATH_SEGMENT, ParseError.Reason.EMPTY, start);
+        }
+        int index = CharacterSets.PCHAR.indexOfFirstInvalidEncodedCharacter(input, start, end);
+        if (index != -1) {
+            return new ParseError(UriComponent.PATH_SEGMENT, ParseError.Reason.INVALID_CHARACTER, index);
         }
+        return null;
     }
 
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.query;
+
+import fr.cvlaminck.builders.exception.MalformedQueryParametersException;
+import fr.cvlaminck.builders.uri.encoding.EncodedToken;
+import fr.cvlaminck.builders.uri.encoding.EncodingProfile;
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+
+/**
+ * Query parameter name meant to be kept in a constant and used many times with
+ * {@link QueryParametersBuilderOperations#appendQueryParameter(QueryName, String...)}, like the name of an
+ * api key. The '=' and '&amp;' delimiters it contains are escaped once when the name is created.
+ */
+public final class QueryName
+        extends EncodedToken {
+
+    private QueryName(String encodedName) {
+        super(encodedName);
+    }
+
+    /**
+     * Create a name from its decoded value, encoded with the default {@link UriEncoding}.
+     *
+     * @throws fr.cvlaminck.builders.exception.MalformedQueryParametersException if name is null or empty.
+     */
+    public static QueryName of(String name) {
+        return of(name, UriEncoding.getDefault());
+    }
+
+    /**
+     * Create a name from its decoded value, encoded with the provided uriEncoding.
+     *
+     * @throws fr.cvlaminck.builders.exception.MalformedQueryParametersException if name is null or empty.
+     */
+    public static QueryName of(String name, UriEncoding uriEncoding) {
+        if (name == null || name.isEmpty()) {
+            throw new MalformedQueryParametersException();
+        }
+        return new QueryName(uriEncoding.encode(name, EncodingProfile.QUERY_PARAMETER_NAME));
+    }
+
+    /**
+     * Create a name from an already encoded value.
+     *
+     * @throws fr.cvlaminck.builders.exception.MalformedQueryParametersException if encodedName is not a valid
+     *                                                                            parameter name.
+     */
+    public static QueryName ofEncoded(String encodedName) {
+        QueryParameterValidator.getInstance().validateQueryParameterName(encodedName);
+        return new QueryName(encodedName);
+    }
+
+    public String getEncodedName() {
+        return getEncodedValue();
+    }
+}
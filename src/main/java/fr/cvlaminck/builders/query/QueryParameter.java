@@ -31,7 +31,10 @@ public class QueryParameter {
     private char separatorChar;
     private String name;
     private List<String> encodedValues;
-    private List<String> values;
+    //Strings are immutable so they can be cached without synchronization, the list is published through a volatile.
+    private String decodedName;
+    private String[] decodedValues;
+    private volatile List<String> values;
 
     QueryParameter(UriEncoding uriEncoding, char separatorChar, String name, List<String> values) {
         this.uriEncoding = uriEncoding;
@@ -46,7 +49,12 @@ public class QueryParameter {
     }
 
     public String getName() {
-        return uriEncoding.decode(name);
+        String decodedName = this.decodedName;
+        if (decodedName == null) {
+            decodedName = uriEncoding.decode(name);
+            this.decodedName = decodedName;
+        }
+        return decodedName;
     }
 
     public List<String> getEncodedValues() {
@@ -54,14 +62,16 @@ public class QueryParameter {
     }
 
     public List<String> getValues() {
+        List<String> values = this.values;
         if (values == null) {
-            ArrayList<String> values = new ArrayList<String>();
-            for (String encodedValue : encodedValues) {
-                values.add(uriEncoding.decode(encodedValue));
+            ArrayList<String> decodedValues = new ArrayList<String>(encodedValues.size());
+            for (int i = 0; i < encodedValues.size(); i++) {
+                decodedValues.add(getDecodedValue(i));
             }
+            values = Collections.unmodifiableList(decodedValues);
             this.values = values;
         }
-        return Collections.unmodifiableList(values);
+        return values;
     }
 
     public String getEncodedValue() {
@@ -69,11 +79,85 @@ public class QueryParameter {
     }
 
     public String getValue() {
-        if (values != null) {
-            return values.get(0);
-        } else {
-            return uriEncoding.decode(getEncodedValue());
+        return getDecodedValue(0);
+    }
+
+    /**
+     * Returns the first value of this parameter as an int.
+     *
+     * @throws java.lang.NumberFormatException if the value is not an int.
+     */
+    public int getIntValue() {
+        return (int) QueryParameterValueParser.parseLong(uriEncoding, encodedValues.get(0), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #getIntValue()} but returns defaultValue instead of throwing an exception.
+     */
+    public int getIntValueOrElse(int defaultValue) {
+        return (int) QueryParameterValueParser.parseLongOrElse(uriEncoding, encodedValues.get(0), Integer.MIN_VALUE, Integer.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Returns the first value of this parameter as a long.
+     *
+     * @throws java.lang.NumberFormatException if the value is not a long.
+     */
+    public long getLongValue() {
+        return QueryParameterValueParser.parseLong(uriEncoding, encodedValues.get(0), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #getLongValue()} but returns defaultValue instead of throwing an exception.
+     */
+    public long getLongValueOrElse(long defaultValue) {
+        return QueryParameterValueParser.parseLongOrElse(uriEncoding, encodedValues.get(0), Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Returns the first value of this parameter as a boolean.
+     *
+     * @throws java.lang.IllegalArgumentException if the value is not "true" or "false", ignoring case.
+     */
+    public boolean getBooleanValue() {
+        return QueryParameterValueParser.parseBoolean(uriEncoding, encodedValues.get(0));
+    }
+
+    /**
+     * Same as {@link #getBooleanValue()} but returns defaultValue instead of throwing an exception.
+     */
+    public boolean getBooleanValueOrElse(boolean defaultValue) {
+        return QueryParameterValueParser.parseBooleanOrElse(uriEncoding, encodedValues.get(0), defaultValue);
+    }
+
+    /**
+     * Returns the first value of this parameter as a double.
+     *
+     * @throws java.lang.NumberFormatException if the value is not a double.
+     */
+    public double getDoubleValue() {
+        return QueryParameterValueParser.parseDouble(uriEncoding, encodedValues.get(0));
+    }
+
+    /**
+     * Same as {@link #getDoubleValue()} but returns defaultValue instead of throwing an exception.
+     */
+    public double getDoubleValueOrElse(double defaultValue) {
+        return QueryParameterValueParser.parseDoubleOrElse(uriEncoding, encodedValues.get(0), defaultValue);
+    }
+
+    private String getDecodedValue(int index) {
+        String[] decodedValues = this.decodedValues;
+        if (decodedValues == null) {
+            decodedValues = new String[encodedValues.size()];
+            this.decodedValues = decodedValues;
+        }
+        String value = decodedValues[index];
+        if (value == null) {
+            value = uriEncoding.decode(encodedValues.get(index));
+            decodedValues[index] = value;
         }
+        return value;
     }
 
     @Override
@@ -99,12 +183,19 @@ public class QueryParameter {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for (String encodedValue : encodedValues) {
-            if (sb.length() != 0) {
-                sb.append(separatorChar);
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Append the encoded representation of this parameter, one name=value pair per value, to the output.
+     */
+    public void appendTo(StringBuilder output) {
+        for (int i = 0; i < encodedValues.size(); i++) {
+            if (i != 0) {
+                output.append(separatorChar);
             }
-            sb.append(String.format("%s=%s", name, encodedValue));
+            output.append(name).append('=').append(encodedValues.get(i));
         }
-        return sb.toString();
     }
 }
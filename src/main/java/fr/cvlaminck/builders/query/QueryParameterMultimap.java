@@ -0,0 +1,392 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.query;
+
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multimap of encoded query parameter names to encoded values, keeping the pairs in insertion order.
+ * <p/>
+ * Pairs are stored in two parallel arrays. While there are few pairs, names are looked up with a linear scan.
+ * Values appended as numbers are kept in a third array and only written as digits when they are rendered.
+ * Above {@link #HASH_INDEX_THRESHOLD} pairs, an open addressing table maps each name to its last pair and
+ * each pair is linked to the previous pair with the same name.
+ */
+final class QueryParameterMultimap {
+    static final int HASH_INDEX_THRESHOLD = 8;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private String[] names;
+    private String[] values;
+    //Value of the pairs whose value is null in values. Null until a number is added.
+    private long[] numbers;
+    private int size;
+    private int nameCount;
+    //Number of pairs whose name contains a character that changes when decoded.
+    private int encodedNameCount;
+
+    //Position + 1 of the last pair of each name, 0 for an empty slot. Null while under the threshold.
+    private int[] table;
+    //Position of the previous pair with the same name or -1.
+    private int[] previous;
+
+    QueryParameterMultimap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private QueryParameterMultimap(int capacity) {
+        this.names = new String[capacity];
+        this.values = new String[capacity];
+    }
+
+    QueryParameterMultimap copy() {
+        QueryParameterMultimap copy = new QueryParameterMultimap(Math.max(size, 1));
+        System.arraycopy(names, 0, copy.names, 0, size);
+        System.arraycopy(values, 0, copy.values, 0, size);
+        if (numbers != null) {
+            copy.numbers = Arrays.copyOf(numbers, copy.names.length);
+        }
+        copy.size = size;
+        copy.rebuildIndex();
+        return copy;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of distinct names.
+     */
+    int nameCount() {
+        return nameCount;
+    }
+
+    String nameAt(int position) {
+        return names[position];
+    }
+
+    String valueAt(int position) {
+        String value = values[position];
+        return (value != null) ? value : Long.toString(numbers[position]);
+    }
+
+    /**
+     * Append the value at position to the output, numbers are written without creating any string.
+     */
+    void appendValueTo(int position, StringBuilder output) {
+        String value = values[position];
+        if (value != null) {
+            output.append(value);
+        } else {
+            output.append(numbers[position]);
+        }
+    }
+
+    /**
+     * Returns the number of characters of the value at position.
+     */
+    int valueLength(int position) {
+        String value = values[position];
+        if (value != null) {
+            return value.length();
+        }
+        //Digits are counted on the negative value so Long.MIN_VALUE does not overflow.
+        long number = numbers[position];
+        int length = (number < 0) ? 2 : 1;
+        if (number > 0) {
+            number = -number;
+        }
+        while (number <= -10) {
+            number /= 10;
+            length++;
+        }
+        return length;
+    }
+
+    static boolean isEncoded(String name) {
+        return name.indexOf('%') != -1 || name.indexOf('+') != -1;
+    }
+
+    void add(String name, String value) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            if (numbers != null) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            if (previous != null) {
+                previous = Arrays.copyOf(previous, size * 2);
+            }
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+        if (isEncoded(name)) {
+            encodedNameCount++;
+        }
+        if (table != null) {
+            index(size - 1);
+            if (nameCount * 2 > table.length) {
+                rebuildIndex();
+            }
+        } else if (size > HASH_INDEX_THRESHOLD) {
+            rebuildIndex();
+        } else if (firstPositionOf(name) == size - 1) {
+            nameCount++;
+        }
+    }
+
+    /**
+     * Add a pair whose value is the decimal representation of the number.
+     */
+    void add(String name, long number) {
+        add(name, (String) null);
+        if (numbers == null) {
+            numbers = new long[names.length];
+        }
+        numbers[size - 1] = number;
+    }
+
+    /**
+     * Returns the position of the first pair at or after fromPosition whose name, once decoded, is equal to name or -1.
+     */
+    int firstPositionOfDecodedName(UriEncoding uriEncoding, String name, int fromPosition) {
+        if (fromPosition <= 0 && encodedNameCount == 0) {
+            //Names are the same once decoded, the index can be used.
+            return firstPositionOf(name);
+        }
+        for (int i = Math.max(fromPosition, 0); i < size; i++) {
+            if (isEncoded(names[i]) ? uriEncoding.decode(names[i]).equals(name) : names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the first pair with the name or -1.
+     */
+    int firstPositionOf(String name) {
+        if (table == null) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int position = table[slotOf(name)] - 1;
+        while (position != -1 && previous[position] != -1) {
+            position = previous[position];
+        }
+        return position;
+    }
+
+    private int lastPositionOf(String name) {
+        if (table == null) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        return table[slotOf(name)] - 1;
+    }
+
+    /**
+     * Returns true if the pair at position is the first one with its name.
+     */
+    boolean isFirstPositionOfName(int position) {
+        if (table != null) {
+            return previous[position] == -1;
+        }
+        return firstPositionOf(names[position]) == position;
+    }
+
+    /**
+     * Returns the values of the name in insertion order or null if there is no pair with this name.
+     * The list is fixed-size and sized to the values, a single value does not need any array.
+     */
+    List<String> getValues(String name) {
+        int position = lastPositionOf(name);
+        if (position == -1) {
+            return null;
+        }
+        int firstPosition = (table == null) ? firstPositionOf(name) : -1;
+        if (position == firstPosition || (table != null && previous[position] == -1)) {
+            return Collections.singletonList(valueAt(position));
+        }
+        if (table == null) {
+            int count = 0;
+            for (int i = firstPosition; i <= position; i++) {
+                if (names[i].equals(name)) {
+                    count++;
+                }
+            }
+            String[] values = new String[count];
+            count = 0;
+            for (int i = firstPosition; i <= position; i++) {
+                if (names[i].equals(name)) {
+                    values[count++] = valueAt(i);
+                }
+            }
+            return Arrays.asList(values);
+        }
+        int count = 0;
+        for (int i = position; i != -1; i = previous[i]) {
+            count++;
+        }
+        String[] values = new String[count];
+        for (int i = position; i != -1; i = previous[i]) {
+            values[--count] = valueAt(i);
+        }
+        return Arrays.asList(values);
+    }
+
+    void removeAll(String name) {
+        replaceAll(name, new String[0]);
+    }
+
+    /**
+     * Remove all pairs whose name, once decoded, is equal to name, whatever the way it is encoded.
+     */
+    void removeAllWithDecodedName(UriEncoding uriEncoding, String name) {
+        int position = firstPositionOfDecodedName(uriEncoding, name, 0);
+        while (position != -1) {
+            removeAll(names[position]);
+            position = firstPositionOfDecodedName(uriEncoding, name, position);
+        }
+    }
+
+    /**
+     * Replace all pairs with the name by one pair per value, placed where the first pair with the name was.
+     * Pairs are appended if there is no pair with this name.
+     */
+    void replaceAll(String name, String[] newValues) {
+        int firstPosition = firstPositionOf(name);
+        if (firstPosition == -1) {
+            for (String value : newValues) {
+                add(name, value);
+            }
+            return;
+        }
+        String[] names = new String[Math.max(size + newValues.length, INITIAL_CAPACITY)];
+        String[] values = new String[names.length];
+        long[] numbers = (this.numbers != null) ? new long[names.length] : null;
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == firstPosition) {
+                for (String value : newValues) {
+                    names[newSize] = name;
+                    values[newSize] = value;
+                    newSize++;
+                }
+            } else if (!this.names[i].equals(name)) {
+                names[newSize] = this.names[i];
+                values[newSize] = this.values[i];
+                if (numbers != null) {
+                    numbers[newSize] = this.numbers[i];
+                }
+                newSize++;
+            }
+        }
+        this.names = names;
+        this.values = values;
+        this.numbers = numbers;
+        this.size = newSize;
+        rebuildIndex();
+    }
+
+    private void rebuildIndex() {
+        table = null;
+        previous = null;
+        nameCount = 0;
+        encodedNameCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (isEncoded(names[i])) {
+                encodedNameCount++;
+            }
+        }
+        if (size <= HASH_INDEX_THRESHOLD) {
+            for (int i = 0; i < size; i++) {
+                if (firstPositionOf(names[i]) == i) {
+                    nameCount++;
+                }
+            }
+            return;
+        }
+        int tableSize = Integer.highestOneBit(size * 4 - 1);
+        table = new int[tableSize];
+        previous = new int[names.length];
+        for (int i = 0; i < size; i++) {
+            index(i);
+        }
+    }
+
+    private void index(int position) {
+        int slot = slotOf(names[position]);
+        previous[position] = table[slot] - 1;
+        if (table[slot] == 0) {
+            nameCount++;
+        }
+        table[slot] = position + 1;
+    }
+
+    private int slotOf(String name) {
+        int mask = table.length - 1;
+        int hash = name.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (table[slot] != 0 && !names[table[slot] - 1].equals(name)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        QueryParameterMultimap that = (QueryParameterMultimap) o;
+
+        if (size != that.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (!names[i].equals(that.names[i])) return false;
+            if (values[i] == null && that.values[i] == null) {
+                if (numbers[i] != that.numbers[i]) return false;
+            } else if (!valueAt(i).equals(that.valueAt(i))) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = size;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + names[i].hashCode();
+            result = 31 * result + valueAt(i).hashCode();
+        }
+        return result;
+    }
+}
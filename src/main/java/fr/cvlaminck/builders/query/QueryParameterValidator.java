@@ -16,21 +16,29 @@
 package fr.cvlaminck.builders.query;
 
 import fr.cvlaminck.builders.exception.MalformedQueryParametersException;
-import fr.cvlaminck.builders.uri.UriValidator;
-
-import java.util.regex.Pattern;
+import fr.cvlaminck.builders.uri.encoding.CharacterSet;
+import fr.cvlaminck.builders.uri.encoding.CharacterSets;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
 
 public class QueryParameterValidator {
 
-    private Pattern queryParameterNamePattern;
-    private Pattern queryParameterValuePattern;
-
     public static String QUERY_PARAMETER_NAME_SUB_DELIMS = "[!$&'()*+,;]";
     public static String QUERY_PARAMETER_VALUE_SUB_DELIMS = "[!$'()*+,;=]";
 
+    private static final CharacterSet QUERY_PARAMETER_NAME = CharacterSets.QUERY.minus("=");
+    private static final CharacterSet QUERY_PARAMETER_VALUE = CharacterSets.QUERY.minus("&");
+
+    private final static QueryParameterValidator instance = new QueryParameterValidator();
+
     public QueryParameterValidator() {
-        queryParameterNamePattern = Pattern.compile("(" + UriValidator.UNRESERVED + "|" + UriValidator.PCT_ENCODED + "|" + QUERY_PARAMETER_NAME_SUB_DELIMS + "|[:@]" + "|[/?])+");
-        queryParameterValuePattern = Pattern.compile("(" + UriValidator.UNRESERVED + "|" + UriValidator.PCT_ENCODED + "|" + QUERY_PARAMETER_VALUE_SUB_DELIMS + "|[:@]" + "|[/?])*");
+    }
+
+    /**
+     * Returns the validator for query parameter names and values shared by all builders.
+     */
+    public static QueryParameterValidator getInstance() {
+        return instance;
     }
 
     /**
@@ -43,11 +51,29 @@ public class QueryParameterValidator {
         if (name == null) {
             throw new MalformedQueryParametersException();
         }
-        if (!queryParameterNamePattern.matcher(name).matches()) {
-            throw new MalformedQueryParametersException();
+        ParseError error = checkQueryParameterName(name, 0, name.length());
+        if (error != null) {
+            throw error.toException();
         }
     }
 
+    /**
+     * Check the query parameter name contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the name is malformed or null if it is valid.
+     * @see #validateQueryParameterName(String)
+     */
+    public ParseError checkQueryParameterName(CharSequence input, int start, int end) {
+        if (start == end) {
+            return new ParseError(UriComponent.QUERY_PARAMETERS, ParseError.Reason.EMPTY, start);
+        }
+        int index = QUERY_PARAMETER_NAME.indexOfFirstInvalidEncodedCharacter(input, start, end);
+        if (index != -1) {
+            return new ParseError(UriComponent.QUERY_PARAMETERS, ParseError.Reason.INVALID_CHARACTER, index);
+        }
+        return null;
+    }
+
     /**
      * Validate if the value passed as parameter is a valid query parameter name or
      * throws an MalformedQueryException.
@@ -58,9 +84,24 @@ public class QueryParameterValidator {
         if (value == null) {
             throw new MalformedQueryParametersException();
         }
-        if (!queryParameterValuePattern.matcher(value).matches()) {
-            throw new MalformedQueryParametersException();
+        ParseError error = checkQueryParameterValue(value, 0, value.length());
+        if (error != null) {
+            throw error.toException();
+        }
+    }
+
+    /**
+     * Check the query parameter value contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the value is malformed or null if it is valid.
+     * @see #validateQueryParameterValue(String)
+     */
+    public ParseError checkQueryParameterValue(CharSequence input, int start, int end) {
+        int index = QUERY_PARAMETER_VALUE.indexOfFirstInvalidEncodedCharacter(input, start, end);
+        if (index != -1) {
+            return new ParseError(UriComponent.QUERY_PARAMETERS, ParseError.Reason.INVALID_CHARACTER, index);
         }
+        return null;
     }
 
 }
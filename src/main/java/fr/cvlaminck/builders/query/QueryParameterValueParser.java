@@ -0,0 +1,129 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.query;
+
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+
+/**
+ * Parse encoded query parameter values into primitives. Values without pct-encoded characters nor '+'
+ * read the same once decoded, so they are parsed in place instead of being decoded into a new String first.
+ */
+final class QueryParameterValueParser {
+
+    private QueryParameterValueParser() {
+    }
+
+    static long parseLong(UriEncoding uriEncoding, String encodedValue, long min, long max) {
+        return parseLong(decodeIfNeeded(uriEncoding, encodedValue), min, max, 0, true);
+    }
+
+    static long parseLongOrElse(UriEncoding uriEncoding, String encodedValue, long min, long max, long defaultValue) {
+        if (encodedValue == null) {
+            return defaultValue;
+        }
+        return parseLong(decodeIfNeeded(uriEncoding, encodedValue), min, max, defaultValue, false);
+    }
+
+    static double parseDouble(UriEncoding uriEncoding, String encodedValue) {
+        if (encodedValue == null) {
+            throw new NumberFormatException("null");
+        }
+        return Double.parseDouble(decodeIfNeeded(uriEncoding, encodedValue));
+    }
+
+    static double parseDoubleOrElse(UriEncoding uriEncoding, String encodedValue, double defaultValue) {
+        if (encodedValue == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(decodeIfNeeded(uriEncoding, encodedValue));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * @throws java.lang.IllegalArgumentException if the value is neither "true" nor "false", ignoring case.
+     */
+    static boolean parseBoolean(UriEncoding uriEncoding, String encodedValue) {
+        Boolean value = toBoolean(uriEncoding, encodedValue);
+        if (value == null) {
+            throw new IllegalArgumentException("Not a boolean: \"" + encodedValue + "\"");
+        }
+        return value;
+    }
+
+    static boolean parseBooleanOrElse(UriEncoding uriEncoding, String encodedValue, boolean defaultValue) {
+        Boolean value = toBoolean(uriEncoding, encodedValue);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Boolean toBoolean(UriEncoding uriEncoding, String encodedValue) {
+        if (encodedValue == null) {
+            return null;
+        }
+        String value = decodeIfNeeded(uriEncoding, encodedValue);
+        if (value.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private static String decodeIfNeeded(UriEncoding uriEncoding, String encodedValue) {
+        if (encodedValue == null) {
+            throw new NumberFormatException("null");
+        }
+        return QueryParameterMultimap.isEncoded(encodedValue) ? uriEncoding.decode(encodedValue) : encodedValue;
+    }
+
+    /**
+     * Same rules as Long.parseLong with a radix of 10, bounded by min and max. Invalid values either throw
+     * a NumberFormatException or return the default value, so defaults never pay for an exception.
+     */
+    private static long parseLong(String value, long min, long max, long defaultValue, boolean throwIfInvalid) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i++;
+        }
+        if (i == length) {
+            return invalid(value, defaultValue, throwIfInvalid);
+        }
+        //Accumulate negatively, like Long.parseLong, so min can be reached without overflowing.
+        long limit = negative ? min : -max;
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < (limit + digit) / 10) {
+                return invalid(value, defaultValue, throwIfInvalid);
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static long invalid(String value, long defaultValue, boolean throwIfInvalid) {
+        if (throwIfInvalid) {
+            throw new NumberFormatException("For input string: \"" + value + "\"");
+        }
+        return defaultValue;
+    }
+}
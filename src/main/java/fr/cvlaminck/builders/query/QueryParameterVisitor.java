@@ -0,0 +1,31 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.query;
+
+/**
+ * Receives the name=value pairs of an encoded query, in order, as they are found by
+ * {@link QueryParameters#visit(CharSequence, QueryParameterVisitor)} or walked by
+ * {@link QueryParameters#forEachPair(QueryParameterVisitor)}. No string is created for the pairs.
+ */
+public interface QueryParameterVisitor {
+
+    /**
+     * Called for each pair. The name and the value are the characters of query between the offsets, still encoded.
+     * They can be decoded into a reused buffer with
+     * {@link fr.cvlaminck.builders.uri.encoding.UriEncoding#decodeTo(CharSequence, int, int, StringBuilder)}.
+     */
+    void visitQueryParameter(CharSequence query, int nameStart, int nameEnd, int valueStart, int valueEnd);
+}
@@ -15,9 +15,14 @@
  */
 package fr.cvlaminck.builders.query;
 
-import fr.cvlaminck.builders.exception.MalformedQueryParametersException;
+import fr.cvlaminck.builders.uri.encoding.AsciiCharSequence;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.ParseResult;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.*;
 
 /**
@@ -30,22 +35,18 @@ public class QueryParameters
 
     private UriEncoding uriEncoding;
 
-    private Map<String, QueryParameter> queryParameters;
+    private QueryParameterMultimap queryParameters;
     private char separatorChar;
 
-    private QueryParameters(UriEncoding uriEncoding, char separatorChar) {
+    //Derived from the parameters, which never change once built. Racy caching is enough.
+    private String encodedQuery;
+    private int hashCode;
+
+    QueryParameters(UriEncoding uriEncoding, char separatorChar, QueryParameterMultimap queryParameters) {
         this.uriEncoding = uriEncoding;
 
         this.separatorChar = separatorChar;
-        this.queryParameters = new HashMap<String, QueryParameter>();
-    }
-
-    QueryParameters(UriEncoding uriEncoding, char separatorChar, Map<String, List<String>> queryParameters) {
-        this(uriEncoding, separatorChar);
-        for (Map.Entry<String, List<String>> param : queryParameters.entrySet()) {
-            QueryParameter queryParameter = new QueryParameter(uriEncoding, separatorChar, param.getKey(), param.getValue());
-            this.queryParameters.put(queryParameter.getEncodedName(), queryParameter);
-        }
+        this.queryParameters = queryParameters;
     }
 
     public static QueryParametersBuilder newBuilder() {
@@ -60,60 +61,167 @@ public class QueryParameters
         return parse(sQuery, QueryParameters.queryParameterSeparatorChar);
     }
 
-    private static QueryParameters parse(String sQuery, char queryParameterSeparatorChar) {
-        if (sQuery == null || sQuery.isEmpty()) {
-            throw new MalformedQueryParametersException();
+    /**
+     * @see #parse(String)
+     */
+    public static QueryParameters parse(CharSequence sQuery) {
+        return parse(sQuery, QueryParameters.queryParameterSeparatorChar);
+    }
+
+    /**
+     * Parse the query parameters contained in the characters of the array between offset and offset + length.
+     */
+    public static QueryParameters parse(char[] sQuery, int offset, int length) {
+        return parse(CharBuffer.wrap(sQuery, offset, length));
+    }
+
+    /**
+     * Parse the query parameters contained in the bytes of the array between offset and offset + length,
+     * read as US-ASCII characters.
+     */
+    public static QueryParameters parse(byte[] sQuery, int offset, int length) {
+        return parse(AsciiCharSequence.wrap(sQuery, offset, length));
+    }
+
+    /**
+     * Parse the query parameters contained in the bytes of the buffer between the absolute index offset and
+     * offset + length, read as US-ASCII characters.
+     */
+    public static QueryParameters parse(ByteBuffer sQuery, int offset, int length) {
+        return parse(AsciiCharSequence.wrap(sQuery, offset, length));
+    }
+
+    /**
+     * Parse the query parameters like {@link #parse(CharSequence)} but returns the error describing the first
+     * malformed parameter instead of throwing an exception.
+     */
+    public static ParseResult<QueryParameters> tryParse(CharSequence sQuery) {
+        return tryParse(sQuery, QueryParameters.queryParameterSeparatorChar);
+    }
+
+    private static QueryParameters parse(CharSequence sQuery, char queryParameterSeparatorChar) {
+        return tryParse(sQuery, queryParameterSeparatorChar).getOrThrow();
+    }
+
+    private static ParseResult<QueryParameters> tryParse(CharSequence sQuery, char queryParameterSeparatorChar) {
+        if (sQuery == null || sQuery.length() == 0) {
+            return ParseResult.failure(new ParseError(UriComponent.QUERY_PARAMETERS, ParseError.Reason.EMPTY, 0));
+        }
+        //Names and values are checked by the scan, so they are not validated again by a builder.
+        final QueryParameterMultimap queryParameters = new QueryParameterMultimap();
+        ParseError error = scan(sQuery, 0, sQuery.length(), queryParameterSeparatorChar, new QueryParameterVisitor() {
+            @Override
+            public void visitQueryParameter(CharSequence query, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+                queryParameters.add(query.subSequence(nameStart, nameEnd).toString(),
+                        query.subSequence(valueStart, valueEnd).toString());
+            }
+        });
+        if (error != null) {
+            return ParseResult.failure(error);
+        }
+        return ParseResult.success(new QueryParameters(UriEncoding.getDefault(), QueryParameters.queryParameterSeparatorChar, queryParameters));
+    }
+
+    /**
+     * Walk the encoded query and call the visitor for each name=value pair, without building any QueryParameters.
+     * Offsets given to the visitor are indexes in sQuery.
+     *
+     * @throws fr.cvlaminck.builders.exception.MalformedQueryParametersException if a pair is malformed. Pairs
+     *                                                                            before it have already been visited.
+     */
+    public static void visit(CharSequence sQuery, QueryParameterVisitor visitor) {
+        ParseError error = tryVisit(sQuery, visitor);
+        if (error != null) {
+            throw error.toException();
+        }
+    }
+
+    /**
+     * Walk the query parameters contained in the bytes of the array between offset and offset + length, read as
+     * US-ASCII characters. Offsets given to the visitor are indexes in the array.
+     *
+     * @see #visit(CharSequence, QueryParameterVisitor)
+     */
+    public static void visit(byte[] sQuery, int offset, int length, QueryParameterVisitor visitor) {
+        if (offset < 0 || length < 0 || offset > sQuery.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        ParseError error = scan(AsciiCharSequence.wrap(sQuery, 0, sQuery.length), offset, offset + length,
+                QueryParameters.queryParameterSeparatorChar, visitor);
+        if (error != null) {
+            throw error.toException();
         }
-        QueryParametersBuilder builder = newBuilder();
-        int currentParsedCharacterIndex = 0;
-        int indexOfEqualCharacter;
-        int indexOfSeparatorCharacter;
-        if (sQuery.length() > 0) {
-            while (currentParsedCharacterIndex < sQuery.length()) {
-                indexOfEqualCharacter = sQuery.indexOf('=', currentParsedCharacterIndex);
-                indexOfSeparatorCharacter = sQuery.indexOf(queryParameterSeparatorChar, currentParsedCharacterIndex);
+    }
+
+    /**
+     * Walk the query like {@link #visit(CharSequence, QueryParameterVisitor)} but returns the error describing
+     * the first malformed pair instead of throwing an exception, or null if all pairs have been visited.
+     */
+    public static ParseError tryVisit(CharSequence sQuery, QueryParameterVisitor visitor) {
+        return scan(sQuery, 0, sQuery.length(), QueryParameters.queryParameterSeparatorChar, visitor);
+    }
+
+    /**
+     * Scanning core shared by parsing and visiting. Each pair is checked before being passed to the visitor,
+     * the scan stops at the first malformed pair and returns its error.
+     */
+    private static ParseError scan(CharSequence sQuery, int start, int end, char queryParameterSeparatorChar, QueryParameterVisitor visitor) {
+        QueryParameterValidator validator = QueryParameterValidator.getInstance();
+        int queryParameterStart = start;
+        int indexOfEqualCharacter = -1;
+        for (int i = start; i <= end; i++) {
+            if (i == end || sQuery.charAt(i) == queryParameterSeparatorChar) {
+                if (i == end && queryParameterStart == i) { //Trailing separator character
+                    break;
+                }
                 if (indexOfEqualCharacter == -1) {
-                    throw new MalformedQueryParametersException();
+                    return new ParseError(UriComponent.QUERY_PARAMETERS, ParseError.Reason.MISSING_SEPARATOR, i);
                 }
-                if (indexOfSeparatorCharacter == -1) {
-                    indexOfSeparatorCharacter = sQuery.length();
+                ParseError error = validator.checkQueryParameterName(sQuery, queryParameterStart, indexOfEqualCharacter);
+                if (error == null) {
+                    error = validator.checkQueryParameterValue(sQuery, indexOfEqualCharacter + 1, i);
                 }
-                String encodedParameterName = sQuery.substring(currentParsedCharacterIndex, indexOfEqualCharacter);
-                String encodedParameterValue;
-                if (indexOfEqualCharacter == indexOfSeparatorCharacter - 1) {
-                    encodedParameterValue = "";
-                } else {
-                    encodedParameterValue = sQuery.substring(indexOfEqualCharacter + 1, indexOfSeparatorCharacter);
+                if (error != null) {
+                    return error;
                 }
-                builder.appendEncodedQueryParameter(encodedParameterName, encodedParameterValue);
-                currentParsedCharacterIndex = indexOfSeparatorCharacter + 1;
+                visitor.visitQueryParameter(sQuery, queryParameterStart, indexOfEqualCharacter, indexOfEqualCharacter + 1, i);
+                queryParameterStart = i + 1;
+                indexOfEqualCharacter = -1;
+            } else if (sQuery.charAt(i) == '=' && indexOfEqualCharacter == -1) {
+                indexOfEqualCharacter = i;
             }
         }
-        return builder.build();
+        return null;
     }
 
     /**
-     * Returns the number of query parameter.
+     * Returns the number of distinct parameter names.
      */
     public int getQueryParameterCount() {
-        return queryParameters.size();
+        return queryParameters.nameCount();
     }
 
     /**
-     * Returns a set of all query parameter names.
+     * Returns all query parameters, in the order of the first occurrence of their name in the query.
      */
     public Set<QueryParameter> getQueryParameters() {
-        return new HashSet<QueryParameter>(this.queryParameters.values());
+        Set<QueryParameter> queryParameters = new LinkedHashSet<QueryParameter>();
+        for (int i = 0; i < this.queryParameters.size(); i++) {
+            if (this.queryParameters.isFirstPositionOfName(i)) {
+                queryParameters.add(getQueryParameterWithEncodedName(this.queryParameters.nameAt(i)));
+            }
+        }
+        return queryParameters;
     }
 
     /**
      * Returns the query parameter with the name provided in parameter or null.
-     * The name provided to this method will be encoded before trying to find
-     * the corresponding query parameter.
+     * The name is compared to the decoded names, so it is never encoded. If the name is
+     * written in different ways in the query, the parameter of its first occurrence is returned.
      */
     public QueryParameter getQueryParameter(String name) {
-        String encodedName = uriEncoding.encode(name);
-        return getQueryParameterWithEncodedName(encodedName);
+        int position = indexOf(name);
+        return position != -1 ? getQueryParameterWithEncodedName(queryParameters.nameAt(position)) : null;
     }
 
     /**
@@ -122,7 +230,162 @@ public class QueryParameters
      * parameter is encoded in the query string, this method WILL return null.
      */
     public QueryParameter getQueryParameterWithEncodedName(String encodedName) {
-        return this.queryParameters.get(encodedName);
+        List<String> encodedValues = queryParameters.getValues(encodedName);
+        if (encodedValues == null) {
+            return null;
+        }
+        return new QueryParameter(uriEncoding, separatorChar, encodedName, encodedValues);
+    }
+
+    /**
+     * Returns the number of name=value pairs, counting each value of a parameter.
+     */
+    public int size() {
+        return queryParameters.size();
+    }
+
+    /**
+     * Returns the decoded name of the pair at index, pairs being in the order of the query.
+     */
+    public String nameAt(int index) {
+        return uriEncoding.decode(getEncodedNameAt(index));
+    }
+
+    public String getEncodedNameAt(int index) {
+        checkIndex(index);
+        return queryParameters.nameAt(index);
+    }
+
+    /**
+     * Returns the decoded value of the pair at index, pairs being in the order of the query.
+     */
+    public String valueAt(int index) {
+        return uriEncoding.decode(getEncodedValueAt(index));
+    }
+
+    public String getEncodedValueAt(int index) {
+        checkIndex(index);
+        return queryParameters.valueAt(index);
+    }
+
+    /**
+     * Returns the index of the first pair whose decoded name is equal to name, or -1.
+     * The name is compared to the decoded names, so it is never encoded.
+     */
+    public int indexOf(String name) {
+        return queryParameters.firstPositionOfDecodedName(uriEncoding, name, 0);
+    }
+
+    /**
+     * Returns the index of the first pair at or after fromIndex whose decoded name is equal to name, or -1.
+     */
+    public int indexOf(String name, int fromIndex) {
+        return queryParameters.firstPositionOfDecodedName(uriEncoding, name, fromIndex);
+    }
+
+    /**
+     * Returns the decoded first value of the pairs whose decoded name is equal to name, or null.
+     */
+    public String getValue(String name) {
+        int index = indexOf(name);
+        return index != -1 ? valueAt(index) : null;
+    }
+
+    /**
+     * Returns the encoded first value of the pairs whose decoded name is equal to name, or null.
+     */
+    public String getEncodedValue(String name) {
+        int index = indexOf(name);
+        return index != -1 ? queryParameters.valueAt(index) : null;
+    }
+
+    /**
+     * Returns the first value of the parameter whose decoded name is equal to name as an int.
+     *
+     * @throws java.lang.NumberFormatException if there is no such parameter or the value is not an int.
+     */
+    public int getIntValue(String name) {
+        return (int) QueryParameterValueParser.parseLong(uriEncoding, getEncodedValue(name), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #getIntValue(String)} but returns defaultValue instead of throwing an exception.
+     */
+    public int getIntValueOrElse(String name, int defaultValue) {
+        return (int) QueryParameterValueParser.parseLongOrElse(uriEncoding, getEncodedValue(name), Integer.MIN_VALUE, Integer.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Returns the first value of the parameter whose decoded name is equal to name as a long.
+     *
+     * @throws java.lang.NumberFormatException if there is no such parameter or the value is not a long.
+     */
+    public long getLongValue(String name) {
+        return QueryParameterValueParser.parseLong(uriEncoding, getEncodedValue(name), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #getLongValue(String)} but returns defaultValue instead of throwing an exception.
+     */
+    public long getLongValueOrElse(String name, long defaultValue) {
+        return QueryParameterValueParser.parseLongOrElse(uriEncoding, getEncodedValue(name), Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Returns the first value of the parameter whose decoded name is equal to name as a boolean.
+     *
+     * @throws java.lang.IllegalArgumentException if there is no such parameter or the value is not "true" or "false", ignoring case.
+     */
+    public boolean getBooleanValue(String name) {
+        return QueryParameterValueParser.parseBoolean(uriEncoding, getEncodedValue(name));
+    }
+
+    /**
+     * Same as {@link #getBooleanValue(String)} but returns defaultValue instead of throwing an exception.
+     */
+    public boolean getBooleanValueOrElse(String name, boolean defaultValue) {
+        return QueryParameterValueParser.parseBooleanOrElse(uriEncoding, getEncodedValue(name), defaultValue);
+    }
+
+    /**
+     * Returns the first value of the parameter whose decoded name is equal to name as a double.
+     *
+     * @throws java.lang.NumberFormatException if there is no such parameter or the value is not a double.
+     */
+    public double getDoubleValue(String name) {
+        return QueryParameterValueParser.parseDouble(uriEncoding, getEncodedValue(name));
+    }
+
+    /**
+     * Same as {@link #getDoubleValue(String)} but returns defaultValue instead of throwing an exception.
+     */
+    public double getDoubleValueOrElse(String name, double defaultValue) {
+        return QueryParameterValueParser.parseDoubleOrElse(uriEncoding, getEncodedValue(name), defaultValue);
+    }
+
+    /**
+     * Call the visitor for each pair, in the order of the query. Offsets given to the visitor are indexes
+     * in the encoded query returned by {@link #toString()}, which is rendered once and kept.
+     */
+    public void forEachPair(QueryParameterVisitor visitor) {
+        String encodedQuery = toString();
+        int nameStart = 0;
+        for (int i = 0; i < queryParameters.size(); i++) {
+            int nameEnd = nameStart + queryParameters.nameAt(i).length();
+            int valueEnd = nameEnd + 1 + queryParameters.valueLength(i);
+            visitor.visitQueryParameter(encodedQuery, nameStart, nameEnd, nameEnd + 1, valueEnd);
+            nameStart = valueEnd + 1;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= queryParameters.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + queryParameters.size());
+        }
+    }
+
+    QueryParameterMultimap getMultimap() {
+        return queryParameters;
     }
 
     public char getSeparatorChar() {
@@ -131,7 +394,37 @@ public class QueryParameters
 
     @Override
     public Iterator<QueryParameter> iterator() {
-        return getQueryParameters().iterator();
+        //Walks the pairs in place instead of copying the parameters in a set.
+        return new Iterator<QueryParameter>() {
+            private int next = nextFirstPosition(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < queryParameters.size();
+            }
+
+            @Override
+            public QueryParameter next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                QueryParameter queryParameter = getQueryParameterWithEncodedName(queryParameters.nameAt(next));
+                next = nextFirstPosition(next + 1);
+                return queryParameter;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private int nextFirstPosition(int position) {
+        while (position < queryParameters.size() && !queryParameters.isFirstPositionOfName(position)) {
+            position++;
+        }
+        return position;
     }
 
     @Override
@@ -149,21 +442,45 @@ public class QueryParameters
 
     @Override
     public int hashCode() {
-        int result = queryParameters.hashCode();
-        result = 31 * result + (int) separatorChar;
+        int result = hashCode;
+        if (result == 0) {
+            result = queryParameters.hashCode();
+            result = 31 * result + (int) separatorChar;
+            hashCode = result;
+        }
         return result;
     }
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for (QueryParameter queryParameter : queryParameters.values()) {
-            if (sb.length() != 0) {
-                sb.append(separatorChar);
-            }
-            sb.append(queryParameter.toString());
+        String encodedQuery = this.encodedQuery;
+        if (encodedQuery == null) {
+            StringBuilder sb = new StringBuilder();
+            render(sb);
+            encodedQuery = sb.toString();
+            this.encodedQuery = encodedQuery;
         }
-        return sb.toString();
+        return encodedQuery;
     }
 
+    /**
+     * Append the encoded representation of these parameters to the output.
+     */
+    public void appendTo(StringBuilder output) {
+        if (encodedQuery != null) {
+            output.append(encodedQuery);
+        } else {
+            render(output);
+        }
+    }
+
+    private void render(StringBuilder output) {
+        for (int i = 0; i < queryParameters.size(); i++) {
+            if (i != 0) {
+                output.append(separatorChar);
+            }
+            output.append(queryParameters.nameAt(i)).append('=');
+            queryParameters.appendValueTo(i, output);
+        }
+    }
 }
@@ -15,13 +15,10 @@
  */
 package fr.cvlaminck.builders.query;
 
+import fr.cvlaminck.builders.exception.MalformedQueryParametersException;
+import fr.cvlaminck.builders.uri.encoding.EncodingProfile;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 class QueryParametersBuilderImpl
         implements QueryParametersBuilder {
 
@@ -29,95 +26,151 @@ class QueryParametersBuilderImpl
 
     private QueryParameterValidator queryParameterValidator;
 
-    private Map<String, List<String>> queryParameters;
+    private QueryParameterMultimap queryParameters;
     private char separatorChar;
 
+    //Same name appended again, like a constant in a loop, is not encoded a second time.
+    private String lastName;
+    private String lastEncodedName;
+
     QueryParametersBuilderImpl(UriEncoding uriEncoding) {
         this.uriEncoding = uriEncoding;
-        this.queryParameterValidator = new QueryParameterValidator();
-        this.queryParameters = new HashMap<String, List<String>>();
+        this.queryParameterValidator = QueryParameterValidator.getInstance();
+        this.queryParameters = new QueryParameterMultimap();
         this.separatorChar = QueryParameters.queryParameterSeparatorChar;
     }
 
     QueryParametersBuilderImpl(UriEncoding uriEncoding, QueryParameters queryParameters) {
         this(uriEncoding);
         this.separatorChar = queryParameters.getSeparatorChar();
-        for (QueryParameter queryParameter : queryParameters.getQueryParameters()) {
-            this.queryParameters.put(queryParameter.getEncodedName(), queryParameter.getEncodedValues());
-        }
+        this.queryParameters = queryParameters.getMultimap().copy();
     }
 
     @Override
     public QueryParametersBuilder appendEncodedQueryParameter(String encodedKey, String... encodedValues) {
         queryParameterValidator.validateQueryParameterName(encodedKey);
-        if (encodedValues.length > 0) {
-            List<String> queryParameterValues = queryParameters.get(encodedKey);
-            if (queryParameterValues == null) {
-                queryParameterValues = new ArrayList<String>();
-                queryParameters.put(encodedKey, queryParameterValues);
-            }
-            for (String encodedValue : encodedValues) {
-                queryParameterValidator.validateQueryParameterValue(encodedValue);
-                queryParameterValues.add(encodedValue);
-            }
+        for (String encodedValue : encodedValues) {
+            queryParameterValidator.validateQueryParameterValue(encodedValue);
         }
-        return this;
+        return appendValidQueryParameter(encodedKey, encodedValues);
     }
 
     @Override
     public QueryParametersBuilder appendQueryParameter(String key, String... values) {
-        String encodedKey = uriEncoding.encode(key);
-        String[] encodedValues = new String[values.length];
-        for (int i = 0; i < values.length; i++) {
-            encodedValues[i] = uriEncoding.encode(values[i]);
+        //Encoded names and values cannot contain invalid characters, skip validation.
+        return appendValidQueryParameter(encodeQueryParameterName(key), encodeQueryParameterValues(values));
+    }
+
+    @Override
+    public QueryParametersBuilder appendQueryParameter(String name, long value) {
+        queryParameters.add(encodeQueryParameterName(name), value);
+        return this;
+    }
+
+    @Override
+    public QueryParametersBuilder appendQueryParameter(String name, int value) {
+        queryParameters.add(encodeQueryParameterName(name), (long) value);
+        return this;
+    }
+
+    @Override
+    public QueryParametersBuilder appendQueryParameter(String name, boolean value) {
+        queryParameters.add(encodeQueryParameterName(name), value ? "true" : "false");
+        return this;
+    }
+
+    @Override
+    public QueryParametersBuilder appendQueryParameter(QueryName name, String... values) {
+        return appendValidQueryParameter(name.getEncodedName(), encodeQueryParameterValues(values));
+    }
+
+    @Override
+    public QueryParametersBuilder appendQueryParameter(QueryName name, long value) {
+        queryParameters.add(name.getEncodedName(), value);
+        return this;
+    }
+
+    @Override
+    public QueryParametersBuilder appendQueryParameter(QueryName name, int value) {
+        queryParameters.add(name.getEncodedName(), (long) value);
+        return this;
+    }
+
+    @Override
+    public QueryParametersBuilder appendQueryParameter(QueryName name, boolean value) {
+        queryParameters.add(name.getEncodedName(), value ? "true" : "false");
+        return this;
+    }
+
+    private QueryParametersBuilder appendValidQueryParameter(String encodedKey, String[] encodedValues) {
+        for (String encodedValue : encodedValues) {
+            queryParameters.add(encodedKey, encodedValue);
         }
-        return appendEncodedQueryParameter(encodedKey, encodedValues);
+        return this;
     }
 
     @Override
     public QueryParametersBuilder removeQueryParameterWithEncodedName(String encodedName) {
-        queryParameters.remove(encodedName);
+        queryParameters.removeAll(encodedName);
         return this;
     }
 
     @Override
     public QueryParametersBuilder removeQueryParameter(String name) {
-        String encodedKey = uriEncoding.encode(name);
-        return removeQueryParameterWithEncodedName(encodedKey);
+        //Names are compared once decoded, an encoded name may escape more characters than the encoder would.
+        queryParameters.removeAllWithDecodedName(uriEncoding, name);
+        return this;
     }
 
     @Override
     public QueryParametersBuilder replaceEncodedQueryParameter(String encodedName, String... encodedValues) {
         queryParameterValidator.validateQueryParameterName(encodedName);
-        if (encodedValues.length == 0) {
-            return removeQueryParameterWithEncodedName(encodedName);
-        }
-        List<String> queryParameterValues = queryParameters.get(encodedName);
-        if (queryParameterValues == null) {
-            queryParameterValues = new ArrayList<String>();
-            queryParameters.put(encodedName, queryParameterValues);
-        } else if (queryParameterValues != null) {
-            queryParameterValues.clear();
-        }
         for (String encodedValue : encodedValues) {
             queryParameterValidator.validateQueryParameterValue(encodedValue);
-            queryParameterValues.add(encodedValue);
         }
-        return this;
+        return replaceValidQueryParameter(encodedName, encodedValues);
     }
 
     @Override
     public QueryParametersBuilder replaceQueryParameter(String name, String... values) {
-        String encodedName = uriEncoding.encode(name);
+        return replaceValidQueryParameter(encodeQueryParameterName(name), encodeQueryParameterValues(values));
+    }
+
+    /**
+     * The values take the place of the first pair with this name, so the order of the other parameters is kept.
+     */
+    private QueryParametersBuilder replaceValidQueryParameter(String encodedName, String[] encodedValues) {
+        queryParameters.replaceAll(encodedName, encodedValues);
+        return this;
+    }
+
+    private String encodeQueryParameterName(String name) {
+        if (name == lastName && name != null) {
+            return lastEncodedName;
+        }
+        if (name == null || name.isEmpty()) {
+            throw new MalformedQueryParametersException();
+        }
+        String encodedName = uriEncoding.encode(name, EncodingProfile.QUERY_PARAMETER_NAME);
+        lastName = name;
+        lastEncodedName = encodedName;
+        return encodedName;
+    }
+
+    private String[] encodeQueryParameterValues(String[] values) {
         String[] encodedValues = new String[values.length];
         for (int i = 0; i < values.length; i++) {
-            encodedValues[i] = uriEncoding.encode(values[i]);
+            if (values[i] == null) {
+                throw new MalformedQueryParametersException();
+            }
+            encodedValues[i] = uriEncoding.encode(values[i], EncodingProfile.QUERY_PARAMETER_VALUE);
         }
-        return replaceEncodedQueryParameter(encodedName, encodedValues);
+        return encodedValues;
     }
 
     @Override
     public QueryParameters build() {
-        return new QueryParameters(uriEncoding, separatorChar, queryParameters);
+        //The builder may still be modified, the parameters get their own copy.
+        return new QueryParameters(uriEncoding, separatorChar, queryParameters.copy());
     }
 }
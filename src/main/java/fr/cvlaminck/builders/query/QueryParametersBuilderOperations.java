@@ -20,6 +20,10 @@ package fr.cvlaminck.builders.query;
  * a list of parameters.</p>
  * <p/>
  * Query parameters are not normalized in the RFC3986.
+ * <p/>
+ * Names can be given as a String or as a {@link QueryName}, so a call with a null literal as name, like
+ * {@code appendQueryParameter(null, "x")}, is ambiguous and does not compile. A null name is rejected anyway;
+ * cast it, {@code (String) null}, to get the {@link fr.cvlaminck.builders.exception.MalformedQueryParametersException}.
  */
 public interface QueryParametersBuilderOperations<Builder> {
 
@@ -27,6 +31,45 @@ public interface QueryParametersBuilderOperations<Builder> {
 
     public Builder appendQueryParameter(String name, String... values);
 
+    /**
+     * Append a parameter with the decimal representation of the value. Only the name is encoded,
+     * the value never needs to be encoded nor validated. The digits are only written when the query
+     * is rendered, no string is created for the value.
+     */
+    public Builder appendQueryParameter(String name, long value);
+
+    /**
+     * @see #appendQueryParameter(String, long)
+     */
+    public Builder appendQueryParameter(String name, int value);
+
+    /**
+     * Append a parameter with "true" or "false" as value. Only the name is encoded.
+     */
+    public Builder appendQueryParameter(String name, boolean value);
+
+    /**
+     * Append a parameter whose name has been encoded and validated when it was created.
+     * The values are encoded like in {@link #appendQueryParameter(String, String...)}.
+     * The name keeps the encoding it has been created with.
+     */
+    public Builder appendQueryParameter(QueryName name, String... values);
+
+    /**
+     * @see #appendQueryParameter(String, long)
+     */
+    public Builder appendQueryParameter(QueryName name, long value);
+
+    /**
+     * @see #appendQueryParameter(String, long)
+     */
+    public Builder appendQueryParameter(QueryName name, int value);
+
+    /**
+     * @see #appendQueryParameter(String, boolean)
+     */
+    public Builder appendQueryParameter(QueryName name, boolean value);
+
     public Builder removeQueryParameterWithEncodedName(String encodedName);
 
     public Builder removeQueryParameter(String name);
@@ -18,11 +18,11 @@ package fr.cvlaminck.builders.uri;
 import fr.cvlaminck.builders.authority.Authority;
 import fr.cvlaminck.builders.authority.AuthorityBuilder;
 import fr.cvlaminck.builders.exception.MalformedPathException;
-import fr.cvlaminck.builders.exception.MalformedQueryParametersException;
 import fr.cvlaminck.builders.path.Path;
 import fr.cvlaminck.builders.path.PathBuilder;
 import fr.cvlaminck.builders.query.QueryParameters;
 import fr.cvlaminck.builders.query.QueryParametersBuilder;
+import fr.cvlaminck.builders.uri.encoding.EncodingProfile;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
 
 /**
@@ -51,7 +51,7 @@ abstract class BaseUriBuilderImpl
     protected BaseUriBuilderImpl(UriEncoding uriEncoding) {
         this.uriEncoding = uriEncoding;
 
-        this.uriValidator = new UriValidator();
+        this.uriValidator = UriValidator.getInstance();
         this.pathBuilder = Path.emptyPath().buildUpon();
     }
 
@@ -64,9 +64,10 @@ abstract class BaseUriBuilderImpl
         }
         this.pathBuilder = uri.getPath().buildUpon();
         if (uri.hasQuery()) {
-            try {
-                this.queryParametersBuilder = QueryParameters.parse(uri.getEncodedQuery()).buildUpon();
-            } catch (MalformedQueryParametersException ex) {
+            QueryParameters queryParameters = uri.getQueryParameters();
+            if (queryParameters != null) {
+                this.queryParametersBuilder = queryParameters.buildUpon();
+            } else {
                 this.query = uri.getEncodedQuery();
             }
         }
@@ -162,7 +163,12 @@ abstract class BaseUriBuilderImpl
 
     @Override
     public UriBuilder withQuery(String query) {
-        return withEncodedQuery(uriEncoding.encode(query));
+        if (query == null || query.isEmpty()) {
+            return withEncodedQuery(query);
+        }
+        this.query = uriEncoding.encode(query, EncodingProfile.QUERY);
+        this.queryParametersBuilder = null;
+        return this;
     }
 
     @Override
@@ -196,7 +202,11 @@ abstract class BaseUriBuilderImpl
 
     @Override
     public UriBuilder withFragment(String fragment) {
-        return withEncodedFragment(uriEncoding.encode(fragment));
+        if (fragment == null || fragment.isEmpty()) {
+            return withEncodedFragment(fragment);
+        }
+        this.fragment = uriEncoding.encode(fragment, EncodingProfile.FRAGMENT);
+        return this;
     }
 
     @Override
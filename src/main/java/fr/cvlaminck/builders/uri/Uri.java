@@ -16,15 +16,20 @@
 package fr.cvlaminck.builders.uri;
 
 import fr.cvlaminck.builders.authority.Authority;
-import fr.cvlaminck.builders.exception.MalformedQueryParametersException;
+import fr.cvlaminck.builders.internal.ComponentAccess;
 import fr.cvlaminck.builders.path.Path;
 import fr.cvlaminck.builders.query.QueryParameters;
+import fr.cvlaminck.builders.uri.encoding.AsciiCharSequence;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+import fr.cvlaminck.builders.uri.parser.ParseResult;
 import fr.cvlaminck.builders.uri.parser.UriParser;
+import fr.cvlaminck.builders.uri.parser.UriParserOptions;
 
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 
 public class Uri {
     public final static char schemeSeparator = ':';
@@ -34,31 +39,58 @@ public class Uri {
 
     private UriEncoding uriEncoding;
 
-    private String scheme;
-    private Authority authority;
-    private Path path;
-    private String query;
-    private QueryParameters queryParameters;
-    private String fragment;
+    //Kept apart so subclasses providing their own components do not carry these fields.
+    private final Components components;
 
+    /**
+     * Constructor for subclasses providing their components by overriding the getters,
+     * like the uris returned by {@link #parseLazily(String)}. Such subclasses must override
+     * getScheme, hasAuthority, getAuthority, getPath, hasQuery, getEncodedQuery, getQueryParameters
+     * and getEncodedFragment; the other methods are derived from them.
+     */
+    protected Uri(UriEncoding uriEncoding) {
+        this.uriEncoding = uriEncoding;
+        this.components = null;
+    }
+
+    /**
+     * The encoded query is only derived from the parameters when it is requested.
+     */
     Uri(UriEncoding uriEncoding, String scheme, Authority authority, Path path, QueryParameters queryParameters, String fragment) {
-        this(uriEncoding, scheme, authority, path, queryParameters.toString(), fragment);
+        this.uriEncoding = uriEncoding;
+        this.components = new Components(scheme, authority, path, fragment);
+
+        if (queryParameters.getQueryParameterCount() != 0) {
+            components.queryParameters = queryParameters;
+        } else {
+            components.query = ""; //Like an empty query, it has no parameters.
+        }
     }
 
     Uri(UriEncoding uriEncoding, String scheme, Authority authority, Path path, String query, String fragment) {
         this.uriEncoding = uriEncoding;
+        this.components = new Components(scheme, authority, path, fragment);
+
+        components.query = query;
+        //Queries that are not made of parameters are valid, they only have no parameters.
+        components.queryParameters = QueryParameters.tryParse(query).getValue();
+    }
 
-        this.scheme = scheme;
-        this.authority = authority;
-        this.path = path;
-        this.query = query;
-        this.fragment = fragment;
+    static {
+        //The parser creates uris from components it has already checked.
+        ComponentAccess.setUriFactory(new ComponentAccess.UriFactory() {
+            @Override
+            public Uri create(UriEncoding uriEncoding, String scheme, Authority authority, Path path, String query, String fragment) {
+                return new Uri(uriEncoding, scheme, authority, path, query, fragment);
+            }
+        });
+    }
 
-        try {
-            this.queryParameters = QueryParameters.parse(query);
-        } catch (MalformedQueryParametersException ex) {
-            this.queryParameters = null;
-        }
+    /**
+     * Returns the encoding used to decode the components of this uri.
+     */
+    protected UriEncoding getUriEncoding() {
+        return uriEncoding;
     }
 
     public static UriBuilder newBuilder() {
@@ -73,44 +105,138 @@ public class Uri {
         return new UriParser().parse(sUri);
     }
 
+    /**
+     * @see #parse(String)
+     */
+    public static Uri parse(CharSequence sUri) {
+        return new UriParser().parse(sUri);
+    }
+
+    /**
+     * Parse the uri like {@link #parse(CharSequence)} but returns the error describing the first malformed component
+     * instead of throwing an exception.
+     */
+    public static ParseResult<Uri> tryParse(CharSequence sUri) {
+        return new UriParser().tryParse(sUri);
+    }
+
+    /**
+     * Parse the uri contained in the characters of the array between offset and offset + length.
+     */
+    public static Uri parse(char[] sUri, int offset, int length) {
+        return parse(CharBuffer.wrap(sUri, offset, length));
+    }
+
+    /**
+     * Parse the uri contained in the bytes of the array between offset and offset + length,
+     * read as US-ASCII characters like uris sent on the wire.
+     */
+    public static Uri parse(byte[] sUri, int offset, int length) {
+        return parse(AsciiCharSequence.wrap(sUri, offset, length));
+    }
+
+    /**
+     * Parse the uri contained in the bytes of the buffer between the absolute index offset and
+     * offset + length, read as US-ASCII characters like uris sent on the wire.
+     */
+    public static Uri parse(ByteBuffer sUri, int offset, int length) {
+        return parse(AsciiCharSequence.wrap(sUri, offset, length));
+    }
+
+    /**
+     * Parse the uri like {@link #parse(String)} but only build its authority, path and query parameters
+     * when they are accessed for the first time. The uri keeps a reference to sUri until then.
+     */
+    public static Uri parseLazily(String sUri) {
+        UriParserOptions options = UriParserOptions.getDefault();
+        options.lazy = true;
+        return new UriParser(options).parse(sUri);
+    }
+
+    /**
+     * Parse the uri like {@link #parse(CharSequence)} but returns an uri keeping only its characters, one byte each,
+     * and the offsets of its components. Components are rebuilt on each access instead of being kept in memory,
+     * which is suited to hold a large number of uris that are rarely read.
+     */
+    public static Uri parseCompact(CharSequence sUri) {
+        UriParserOptions options = UriParserOptions.getDefault();
+        options.compact = true;
+        return new UriParser(options).parse(sUri);
+    }
+
     public String getScheme() {
-        return scheme;
+        return components().scheme;
     }
 
     public boolean hasAuthority() {
-        return authority != null;
+        return components().authority != null;
     }
 
     public Authority getAuthority() {
-        return authority;
+        return components().authority;
     }
 
     public Path getPath() {
-        return path;
+        return components().path;
     }
 
     public boolean hasQuery() {
-        return query != null && !query.isEmpty();
+        Components components = components();
+        return components.queryParameters != null || (components.query != null && !components.query.isEmpty());
     }
 
     public String getQuery() {
-        return uriEncoding.decode(query);
+        if (components == null) {
+            return uriEncoding.decode(getEncodedQuery());
+        }
+        String decodedQuery = components.decodedQuery;
+        if (decodedQuery == null) {
+            decodedQuery = uriEncoding.decode(getEncodedQuery());
+            components.decodedQuery = decodedQuery;
+        }
+        return decodedQuery;
     }
 
     public String getEncodedQuery() {
+        Components components = components();
+        String query = components.query;
+        if (query == null && components.queryParameters != null) {
+            //Strings are immutable, so a race only means the query may be derived more than once.
+            query = components.queryParameters.toString();
+            components.query = query;
+        }
         return query;
     }
 
     public QueryParameters getQueryParameters() {
-        return queryParameters;
+        return components().queryParameters;
     }
 
     public String getEncodedFragment() {
-        return fragment;
+        return components().fragment;
     }
 
     public String getFragment() {
-        return uriEncoding.decode(fragment);
+        if (components == null) {
+            return uriEncoding.decode(getEncodedFragment());
+        }
+        String decodedFragment = components.decodedFragment;
+        if (decodedFragment == null) {
+            decodedFragment = uriEncoding.decode(getEncodedFragment());
+            components.decodedFragment = decodedFragment;
+        }
+        return decodedFragment;
+    }
+
+    /**
+     * @throws java.lang.UnsupportedOperationException if this uri has no components and the subclass does not
+     *                                                 override the getter calling this method.
+     */
+    private Components components() {
+        if (components == null) {
+            throw new UnsupportedOperationException(getClass().getName() + " must override the getters of its components");
+        }
+        return components;
     }
 
     public URI toURI() {
@@ -121,23 +247,90 @@ public class Uri {
         }
     }
 
+    /**
+     * Two uris are equal if their encoded representations are equal, whether they have been parsed eagerly,
+     * lazily or built.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Uri)) return false;
+
+        return toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+    /**
+     * Subclasses without components render the uri on each call, they may keep the result themselves.
+     */
     @Override
     public String toString() {
-        StringBuffer sb = new StringBuffer();
-        sb.append(scheme).append(schemeSeparator);
-        if (authority != null) {
-            sb.append(authorityPrefixCharacter);
-            sb.append(authorityPrefixCharacter);
-            sb.append(authority);
+        if (components == null) {
+            StringBuilder sb = new StringBuilder();
+            render(sb);
+            return sb.toString();
+        }
+        String encodedUri = components.encodedUri;
+        if (encodedUri == null) {
+            StringBuilder sb = new StringBuilder();
+            render(sb);
+            encodedUri = sb.toString();
+            components.encodedUri = encodedUri;
         }
-        sb.append(path);
-        if (query != null && !query.isEmpty()) {
-            sb.append(querySeparator);
-            sb.append(query);
+        return encodedUri;
+    }
+
+    /**
+     * Append the encoded representation of this uri to the output.
+     */
+    public void appendTo(StringBuilder output) {
+        if (components != null && components.encodedUri != null) {
+            output.append(components.encodedUri);
+        } else {
+            render(output);
+        }
+    }
+
+    private void render(StringBuilder output) {
+        output.append(getScheme()).append(schemeSeparator);
+        if (hasAuthority()) {
+            output.append(authorityPrefixCharacter);
+            output.append(authorityPrefixCharacter);
+            getAuthority().appendTo(output);
         }
+        getPath().appendTo(output);
+        if (hasQuery()) {
+            output.append(querySeparator);
+            output.append(getEncodedQuery());
+        }
+        String fragment = getEncodedFragment();
         if (fragment != null) {
-            sb.append(fragmentSeparator).append(fragment);
+            output.append(fragmentSeparator).append(fragment);
+        }
+    }
+
+    private static final class Components {
+        private final String scheme;
+        private final Authority authority;
+        private final Path path;
+        private String query;
+        private QueryParameters queryParameters;
+        private final String fragment;
+
+        //Every component is immutable, so the rendered uri can be kept for toString, toURI, equals and hashCode.
+        private String encodedUri;
+        private String decodedQuery;
+        private String decodedFragment;
+
+        private Components(String scheme, Authority authority, Path path, String fragment) {
+            this.scheme = scheme;
+            this.authority = authority;
+            this.path = path;
+            this.fragment = fragment;
         }
-        return sb.toString();
     }
 }
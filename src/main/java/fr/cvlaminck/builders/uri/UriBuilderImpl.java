@@ -16,6 +16,8 @@
 package fr.cvlaminck.builders.uri;
 
 import fr.cvlaminck.builders.path.Path;
+import fr.cvlaminck.builders.path.PathSegment;
+import fr.cvlaminck.builders.query.QueryName;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
 
 class UriBuilderImpl
@@ -78,6 +80,18 @@ class UriBuilderImpl
         return this;
     }
 
+    @Override
+    public UriBuilder appendPathSegment(long pathSegment) {
+        getPathBuilder().appendPathSegment(pathSegment);
+        return this;
+    }
+
+    @Override
+    public UriBuilder appendPathSegment(PathSegment pathSegment) {
+        getPathBuilder().appendPathSegment(pathSegment);
+        return this;
+    }
+
     @Override
     public UriBuilder appendEncodedPathSegment(String pathSegment) {
         getPathBuilder().appendEncodedPathSegment(pathSegment);
@@ -120,6 +134,48 @@ class UriBuilderImpl
         return this;
     }
 
+    @Override
+    public UriBuilder appendQueryParameter(String name, long value) {
+        getQueryParametersBuilder().appendQueryParameter(name, value);
+        return this;
+    }
+
+    @Override
+    public UriBuilder appendQueryParameter(String name, int value) {
+        getQueryParametersBuilder().appendQueryParameter(name, value);
+        return this;
+    }
+
+    @Override
+    public UriBuilder appendQueryParameter(String name, boolean value) {
+        getQueryParametersBuilder().appendQueryParameter(name, value);
+        return this;
+    }
+
+    @Override
+    public UriBuilder appendQueryParameter(QueryName name, String... values) {
+        getQueryParametersBuilder().appendQueryParameter(name, values);
+        return this;
+    }
+
+    @Override
+    public UriBuilder appendQueryParameter(QueryName name, long value) {
+        getQueryParametersBuilder().appendQueryParameter(name, value);
+        return this;
+    }
+
+    @Override
+    public UriBuilder appendQueryParameter(QueryName name, int value) {
+        getQueryParametersBuilder().appendQueryParameter(name, value);
+        return this;
+    }
+
+    @Override
+    public UriBuilder appendQueryParameter(QueryName name, boolean value) {
+        getQueryParametersBuilder().appendQueryParameter(name, value);
+        return this;
+    }
+
     @Override
     public UriBuilder removeQueryParameter(String name) {
         getQueryParametersBuilder().removeQueryParameter(name);
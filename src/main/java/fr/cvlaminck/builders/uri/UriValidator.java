@@ -18,11 +18,13 @@ package fr.cvlaminck.builders.uri;
 import fr.cvlaminck.builders.exception.MalformedFragmentException;
 import fr.cvlaminck.builders.exception.MalformedQueryException;
 import fr.cvlaminck.builders.exception.MalformedSchemeException;
-
-import java.util.regex.Pattern;
+import fr.cvlaminck.builders.uri.encoding.CharacterSets;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
 
 public class UriValidator {
 
+    //Regular expressions of the grammar, validation scans the input against the tables of CharacterSets instead.
     public static String UNRESERVED = "[a-zA-Z0-9\\-\\._~]";
 
     public static String PCT_ENCODED = "(%[a-fA-F0-9][a-fA-F0-9])";
@@ -31,14 +33,17 @@ public class UriValidator {
 
     public static String PCHAR = UNRESERVED + "|" + PCT_ENCODED + "|" + SUB_DELIMS + "|[:@]";
 
-    private Pattern schemePattern;
-    private Pattern queryPattern;
-    private Pattern fragmentPattern;
+    private final static UriValidator instance = new UriValidator();
 
     public UriValidator() {
-        this.schemePattern = Pattern.compile("[a-zA-Z][a-zA-Z0-9+.\\-]*");
-        this.queryPattern = Pattern.compile("(" + UriValidator.PCHAR + "|[/?])+");
-        this.fragmentPattern = Pattern.compile("(" + UriValidator.PCHAR + "|[/?])*");
+    }
+
+    /**
+     * Returns the validator for scheme, query and fragment shared by all builders.
+     * Validators do not hold any state, so a single instance can be used by any number of threads.
+     */
+    public static UriValidator getInstance() {
+        return instance;
     }
 
     /**
@@ -54,11 +59,41 @@ public class UriValidator {
         if (scheme == null) {
             throw new MalformedSchemeException();
         }
-        if (!schemePattern.matcher(scheme).matches()) {
-            throw new MalformedSchemeException();
+        validateScheme(scheme, 0, scheme.length());
+    }
+
+    /**
+     * Validate the scheme contained in input between start (inclusive) and end (exclusive).
+     *
+     * @see #validateScheme(String)
+     */
+    public void validateScheme(CharSequence input, int start, int end) {
+        ParseError error = checkScheme(input, start, end);
+        if (error != null) {
+            throw error.toException();
         }
     }
 
+    /**
+     * Check the scheme contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the scheme is malformed or null if it is valid.
+     * @see #validateScheme(String)
+     */
+    public ParseError checkScheme(CharSequence input, int start, int end) {
+        if (start == end) {
+            return new ParseError(UriComponent.SCHEME, ParseError.Reason.EMPTY, start);
+        }
+        if (!CharacterSets.ALPHA.contains(input.charAt(start))) {
+            return new ParseError(UriComponent.SCHEME, ParseError.Reason.INVALID_CHARACTER, start);
+        }
+        int index = CharacterSets.SCHEME.indexOfFirstCharacterNotInSet(input, start + 1, end);
+        if (index != -1) {
+            return new ParseError(UriComponent.SCHEME, ParseError.Reason.INVALID_CHARACTER, index);
+        }
+        return null;
+    }
+
     /**
      * Validate if the value passed as parameter is a valid query according to RFC3986 or
      * throws an MalformedQueryException.
@@ -73,11 +108,38 @@ public class UriValidator {
         if (sQuery == null) {
             throw new MalformedQueryException();
         }
-        if (!queryPattern.matcher(sQuery).matches()) {
-            throw new MalformedQueryException();
+        validateQuery(sQuery, 0, sQuery.length());
+    }
+
+    /**
+     * Validate the query contained in input between start (inclusive) and end (exclusive).
+     *
+     * @see #validateQuery(String)
+     */
+    public void validateQuery(CharSequence input, int start, int end) {
+        ParseError error = checkQuery(input, start, end);
+        if (error != null) {
+            throw error.toException();
         }
     }
 
+    /**
+     * Check the query contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the query is malformed or null if it is valid.
+     * @see #validateQuery(String)
+     */
+    public ParseError checkQuery(CharSequence input, int start, int end) {
+        if (start == end) {
+            return new ParseError(UriComponent.QUERY, ParseError.Reason.EMPTY, start);
+        }
+        int index = CharacterSets.QUERY.indexOfFirstInvalidEncodedCharacter(input, start, end);
+        if (index != -1) {
+            return new ParseError(UriComponent.QUERY, ParseError.Reason.INVALID_CHARACTER, index);
+        }
+        return null;
+    }
+
     /**
      * Validate if the value passed as parameter is a valid fragment according to RFC3986 or
      * throws an MalformedFragmentException.
@@ -92,9 +154,33 @@ public class UriValidator {
         if (sFragment == null) {
             throw new MalformedFragmentException();
         }
-        if (!fragmentPattern.matcher(sFragment).matches()) {
-            throw new MalformedFragmentException();
+        validateFragment(sFragment, 0, sFragment.length());
+    }
+
+    /**
+     * Validate the fragment contained in input between start (inclusive) and end (exclusive).
+     *
+     * @see #validateFragment(String)
+     */
+    public void validateFragment(CharSequence input, int start, int end) {
+        ParseError error = checkFragment(input, start, end);
+        if (error != null) {
+            throw error.toException();
+        }
+    }
+
+    /**
+     * Check the fragment contained in input between start (inclusive) and end (exclusive).
+     *
+     * @return the error describing why the fragment is malformed or null if it is valid.
+     * @see #validateFragment(String)
+     */
+    public ParseError checkFragment(CharSequence input, int start, int end) {
+        int index = CharacterSets.FRAGMENT.indexOfFirstInvalidEncodedCharacter(input, start, end);
+        if (index != -1) {
+            return new ParseError(UriComponent.FRAGMENT, ParseError.Reason.INVALID_CHARACTER, index);
         }
+        return null;
     }
 
 }
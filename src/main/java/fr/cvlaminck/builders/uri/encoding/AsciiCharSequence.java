@@ -0,0 +1,95 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.encoding;
+
+import java.nio.ByteBuffer;
+
+/**
+ * View of a range of bytes as a sequence of US-ASCII characters, so they can be parsed
+ * without being decoded into a String first. Each byte is mapped to the character with the same
+ * value, bytes outside of the ASCII range are mapped to characters that are never valid in an uri.
+ * <p/>
+ * The bytes are not copied, they must not be modified while the sequence is in use.
+ */
+public final class AsciiCharSequence
+        implements CharSequence {
+
+    private final byte[] array;
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private AsciiCharSequence(byte[] array, ByteBuffer buffer, int offset, int length) {
+        this.array = array;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static AsciiCharSequence wrap(byte[] bytes, int offset, int length) {
+        checkRange(bytes.length, offset, length);
+        return new AsciiCharSequence(bytes, null, offset, length);
+    }
+
+    /**
+     * Wrap the bytes of the buffer from the absolute index offset.
+     * The position and the limit of the buffer are not used nor modified.
+     */
+    public static AsciiCharSequence wrap(ByteBuffer buffer, int offset, int length) {
+        checkRange(buffer.capacity(), offset, length);
+        if (buffer.hasArray()) {
+            return new AsciiCharSequence(buffer.array(), null, buffer.arrayOffset() + offset, length);
+        }
+        return new AsciiCharSequence(null, buffer, offset, length);
+    }
+
+    private static void checkRange(int size, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException();
+        }
+        byte value = (array != null) ? array[offset + index] : buffer.get(offset + index);
+        return (char) (value & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new AsciiCharSequence(array, buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        char[] characters = new char[length];
+        for (int i = 0; i < length; i++) {
+            characters[i] = charAt(i);
+        }
+        return new String(characters);
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.encoding;
+
+/**
+ * Immutable set of ASCII characters backed by a lookup table.
+ * Characters outside of the ASCII range are never contained in a set.
+ */
+public final class CharacterSet {
+    private static final int TABLE_SIZE = 128;
+
+    private final boolean[] table;
+
+    private CharacterSet(boolean[] table) {
+        this.table = table;
+    }
+
+    /**
+     * Create a set containing all ASCII characters included in at least one of the spans.
+     */
+    static CharacterSet of(CharacterSpan... spans) {
+        boolean[] table = new boolean[TABLE_SIZE];
+        for (char character = 0; character < TABLE_SIZE; character++) {
+            for (CharacterSpan span : spans) {
+                if (span.contains(character)) {
+                    table[character] = true;
+                    break;
+                }
+            }
+        }
+        return new CharacterSet(table);
+    }
+
+    /**
+     * Create a set containing all ASCII characters of the string.
+     */
+    public static CharacterSet of(String characters) {
+        boolean[] table = new boolean[TABLE_SIZE];
+        for (int i = 0; i < characters.length(); i++) {
+            char character = characters.charAt(i);
+            if (character < TABLE_SIZE) {
+                table[character] = true;
+            }
+        }
+        return new CharacterSet(table);
+    }
+
+    /**
+     * Returns a new set containing the characters of this set and the one of the other set.
+     */
+    public CharacterSet union(CharacterSet other) {
+        boolean[] table = new boolean[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            table[i] = this.table[i] || other.table[i];
+        }
+        return new CharacterSet(table);
+    }
+
+    /**
+     * Returns a new set containing the characters of this set that are not in the string.
+     */
+    public CharacterSet minus(String characters) {
+        boolean[] table = this.table.clone();
+        for (int i = 0; i < characters.length(); i++) {
+            char character = characters.charAt(i);
+            if (character < TABLE_SIZE) {
+                table[character] = false;
+            }
+        }
+        return new CharacterSet(table);
+    }
+
+    public boolean contains(char character) {
+        return character < TABLE_SIZE && table[character];
+    }
+
+    /**
+     * Returns the index of the first character of input, between start (inclusive) and end (exclusive),
+     * that is not in this set or -1 if all characters are in this set.
+     */
+    public int indexOfFirstCharacterNotInSet(CharSequence input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!contains(input.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first character of input, between start (inclusive) and end (exclusive),
+     * that is neither in this set nor part of a pct-encoded character, or -1 if there is none.
+     * <p/>
+     * pct-encoded   = "%" HEXDIG HEXDIG
+     */
+    public int indexOfFirstInvalidEncodedCharacter(CharSequence input, int start, int end) {
+        int i = start;
+        while (i < end) {
+            char character = input.charAt(i);
+            if (character < TABLE_SIZE && table[character]) {
+                i++;
+            } else if (isPctEncoded(input, i, end)) {
+                i += 3;
+            } else {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isPctEncoded(CharSequence input, int index, int end) {
+        return input.charAt(index) == UriEncoding.ENCODED_CHARACTER_PREFIX && index + 2 < end
+                && CharacterSets.HEXDIG.contains(input.charAt(index + 1))
+                && CharacterSets.HEXDIG.contains(input.charAt(index + 2));
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.encoding;
+
+/**
+ * Sets of characters defined in RFC3986.
+ */
+public final class CharacterSets {
+
+    /**
+     * ALPHA         = %x41-5A / %x61-7A
+     */
+    public static final CharacterSet ALPHA = CharacterSet.of(
+            CharacterSpan.newRange('a', 'z'),
+            CharacterSpan.newRange('A', 'Z')
+    );
+
+    /**
+     * DIGIT         = %x30-39
+     */
+    public static final CharacterSet DIGIT = CharacterSet.of(
+            CharacterSpan.newRange('0', '9')
+    );
+
+    /**
+     * HEXDIG        = DIGIT / "A" / "B" / "C" / "D" / "E" / "F", case-insensitive
+     */
+    public static final CharacterSet HEXDIG = CharacterSet.of(
+            CharacterSpan.newRange('0', '9'),
+            CharacterSpan.newRange('a', 'f'),
+            CharacterSpan.newRange('A', 'F')
+    );
+
+    /**
+     * scheme        = ALPHA *( ALPHA / DIGIT / "+" / "-" / "." )
+     * <p/>
+     * Set of characters allowed after the first ALPHA.
+     */
+    public static final CharacterSet SCHEME = ALPHA.union(DIGIT).union(CharacterSet.of("+-."));
+
+    /**
+     * unreserved    = ALPHA / DIGIT / "-" / "." / "_" / "~"
+     */
+    public static final CharacterSet UNRESERVED = ALPHA.union(DIGIT).union(CharacterSet.of("-._~"));
+
+    /**
+     * sub-delims    = "!" / "$" / "&" / "'" / "(" / ")" / "*" / "+" / "," / ";" / "="
+     */
+    public static final CharacterSet SUB_DELIMS = CharacterSet.of("!$&'()*+,;=");
+
+    /**
+     * pchar         = unreserved / pct-encoded / sub-delims / ":" / "@"
+     */
+    public static final CharacterSet PCHAR = UNRESERVED.union(SUB_DELIMS).union(CharacterSet.of(":@"));
+
+    /**
+     * query         = *( pchar / "/" / "?" )
+     */
+    public static final CharacterSet QUERY = PCHAR.union(CharacterSet.of("/?"));
+
+    /**
+     * fragment      = *( pchar / "/" / "?" )
+     */
+    public static final CharacterSet FRAGMENT = QUERY;
+
+    /**
+     * userinfo      = *( unreserved / pct-encoded / sub-delims / ":" )
+     */
+    public static final CharacterSet USER_INFORMATION = UNRESERVED.union(SUB_DELIMS).union(CharacterSet.of(":"));
+
+    /**
+     * reg-name      = *( unreserved / pct-encoded / sub-delims )
+     */
+    public static final CharacterSet REG_NAME = UNRESERVED.union(SUB_DELIMS);
+
+    private CharacterSets() {
+    }
+}
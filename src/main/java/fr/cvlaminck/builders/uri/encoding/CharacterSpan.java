@@ -17,8 +17,8 @@ package fr.cvlaminck.builders.uri.encoding;
 
 class CharacterSpan {
 
-    private char startCharacter;
-    private char endCharacter;
+    private final char startCharacter;
+    private final char endCharacter;
 
     private CharacterSpan(char startCharacter, char endCharacter) {
         this.startCharacter = startCharacter;
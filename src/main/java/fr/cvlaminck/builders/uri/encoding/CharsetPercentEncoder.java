@@ -0,0 +1,83 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.encoding;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * PercentEncoder relying on a CharsetEncoder to convert characters into bytes.
+ * Each thread reuses its own CharsetEncoder and byte buffer, so encoding a run of characters does
+ * not allocate more than the CharBuffer wrapping the input.
+ */
+class CharsetPercentEncoder
+        extends PercentEncoder {
+    private final static int BUFFER_SIZE = 64;
+
+    private final ThreadLocal<EncodingContext> contexts;
+
+    CharsetPercentEncoder(final Charset charset) {
+        this.contexts = new ThreadLocal<EncodingContext>() {
+            @Override
+            protected EncodingContext initialValue() {
+                return new EncodingContext(charset);
+            }
+        };
+    }
+
+    @Override
+    void encode(CharSequence input, int start, int end, StringBuilder output) {
+        EncodingContext context = contexts.get();
+        CharsetEncoder encoder = context.encoder;
+        ByteBuffer bytes = context.bytes;
+        CharBuffer characters = CharBuffer.wrap(input, start, end);
+
+        encoder.reset();
+        CoderResult result;
+        do {
+            result = encoder.encode(characters, bytes, true);
+            appendEncodedBytes(output, bytes);
+        } while (result.isOverflow());
+        do {
+            result = encoder.flush(bytes);
+            appendEncodedBytes(output, bytes);
+        } while (result.isOverflow());
+    }
+
+    private void appendEncodedBytes(StringBuilder output, ByteBuffer bytes) {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            appendEncodedByte(output, bytes.get());
+        }
+        bytes.clear();
+    }
+
+    private static class EncodingContext {
+        private final CharsetEncoder encoder;
+        private final ByteBuffer bytes;
+
+        private EncodingContext(Charset charset) {
+            this.encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.encoding;
+
+/**
+ * Immutable part of an uri that has been encoded and validated once, when it was created. Builders append
+ * the encoded value as is, without any check. The value is bound to the encoding used to create the token,
+ * so two tokens with the same encoded value are equal and render the same way in any builder.
+ */
+public abstract class EncodedToken {
+
+    private final String encodedValue;
+
+    protected EncodedToken(String encodedValue) {
+        this.encodedValue = encodedValue;
+    }
+
+    protected final String getEncodedValue() {
+        return encodedValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        EncodedToken that = (EncodedToken) o;
+
+        return encodedValue.equals(that.encodedValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return encodedValue.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return encodedValue;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.encoding;
+
+/**
+ * Set of characters that can be left as is when encoding a value for a given component of an URI.
+ * <p/>
+ * Except for FORM, profiles follow the sets allowed by RFC3986 so an encoded value is always valid for its component.
+ * The plus '+' character is encoded by every profile since it is decoded as a space.
+ */
+public enum EncodingProfile {
+    /**
+     * Encode all characters except unreserved ones. Space is encoded as '+', like application/x-www-form-urlencoded.
+     */
+    FORM(CharacterSets.UNRESERVED, true),
+
+    /**
+     * segment       = *pchar
+     */
+    PATH_SEGMENT(CharacterSets.PCHAR, false),
+
+    /**
+     * query         = *( pchar / "/" / "?" )
+     */
+    QUERY(CharacterSets.QUERY, true),
+
+    /**
+     * Same as QUERY but encodes the characters separating parameters and their name from their values.
+     */
+    QUERY_PARAMETER_NAME(CharacterSets.QUERY.minus("&="), true),
+
+    /**
+     * Same as QUERY but encodes the character separating parameters.
+     */
+    QUERY_PARAMETER_VALUE(CharacterSets.QUERY.minus("&"), true),
+
+    /**
+     * fragment      = *( pchar / "/" / "?" )
+     */
+    FRAGMENT(CharacterSets.FRAGMENT, false),
+
+    /**
+     * userinfo      = *( unreserved / pct-encoded / sub-delims / ":" )
+     */
+    USER_INFORMATION(CharacterSets.USER_INFORMATION, false),
+
+    /**
+     * reg-name      = *( unreserved / pct-encoded / sub-delims )
+     */
+    HOST(CharacterSets.REG_NAME, false);
+
+    final CharacterSet nonEncodedCharacters;
+    final boolean spaceAsPlus;
+
+    EncodingProfile(CharacterSet nonEncodedCharacters, boolean spaceAsPlus) {
+        this.nonEncodedCharacters = nonEncodedCharacters.minus("+");
+        this.spaceAsPlus = spaceAsPlus;
+    }
+}
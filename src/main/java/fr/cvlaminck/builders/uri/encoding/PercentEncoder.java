@@ -0,0 +1,52 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.encoding;
+
+import java.nio.charset.Charset;
+
+/**
+ * Encode runs of characters into pct-encoded bytes, as defined in RFC3986, using a given charset.
+ * Implementations are responsible for converting characters into bytes, including surrogate
+ * pairs, and write the result directly into the output.
+ */
+abstract class PercentEncoder {
+    private final static String UTF_8 = "UTF-8";
+
+    private final static char[] hexEncodingCharacters = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Returns a PercentEncoder for the charset passed as parameter.
+     * Encoder for UTF-8 charset does not rely on a CharsetEncoder.
+     */
+    static PercentEncoder forCharset(Charset charset) {
+        if (UTF_8.equals(charset.name())) {
+            return new Utf8PercentEncoder();
+        }
+        return new CharsetPercentEncoder(charset);
+    }
+
+    /**
+     * Encode characters from start (inclusive) to end (exclusive) of the input and append
+     * the pct-encoded bytes to the output. All characters in the range will be encoded.
+     */
+    abstract void encode(CharSequence input, int start, int end, StringBuilder output);
+
+    protected void appendEncodedByte(StringBuilder output, int b) {
+        output.append(UriEncoding.ENCODED_CHARACTER_PREFIX);
+        output.append(hexEncodingCharacters[(b >> 4) & 0x0F]);
+        output.append(hexEncodingCharacters[b & 0x0F]);
+    }
+}
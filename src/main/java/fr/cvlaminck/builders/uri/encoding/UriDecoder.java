@@ -17,8 +17,11 @@ package fr.cvlaminck.builders.uri.encoding;
 
 import java.nio.charset.Charset;
 
+/**
+ * Immutable decoder, safe to be used concurrently by multiple threads.
+ */
 class UriDecoder {
-    private Charset charset;
+    private final Charset charset;
 
     public UriDecoder(Charset charset) {
         this.charset = charset;
@@ -28,19 +31,61 @@ class UriDecoder {
         if (input == null) {
             return null;
         }
-        StringBuffer sb = new StringBuffer(input.length());
-        int numberOfDecodedCharacters = 0;
-        while (numberOfDecodedCharacters < input.length()) {
+        int indexOfFirstCharacterToDecode = indexOfFirstCharacterToDecode(input, 0, input.length());
+        if (indexOfFirstCharacterToDecode == -1) {
+            return input;
+        }
+        StringBuilder sb = new StringBuilder(input.length());
+        sb.append(input, 0, indexOfFirstCharacterToDecode);
+        decodeCharacters(input, indexOfFirstCharacterToDecode, input.length(), sb);
+        return sb.toString();
+    }
+
+    public void decodeTo(CharSequence input, StringBuilder output) {
+        decodeTo(input, 0, input.length(), output);
+    }
+
+    /**
+     * Decode the characters of input between start (inclusive) and end (exclusive) and append them to the output.
+     */
+    public void decodeTo(CharSequence input, int start, int end, StringBuilder output) {
+        int indexOfFirstCharacterToDecode = indexOfFirstCharacterToDecode(input, start, end);
+        if (indexOfFirstCharacterToDecode == -1) {
+            output.append(input, start, end);
+            return;
+        }
+        output.append(input, start, indexOfFirstCharacterToDecode);
+        decodeCharacters(input, indexOfFirstCharacterToDecode, end, output);
+    }
+
+    private void decodeCharacters(CharSequence input, int start, int end, StringBuilder output) {
+        int numberOfDecodedCharacters = start;
+        while (numberOfDecodedCharacters < end) {
             char character = input.charAt(numberOfDecodedCharacters);
             if (character == UriEncoding.ENCODED_CHARACTER_PREFIX) {
-                numberOfDecodedCharacters += decodeEncodedCharacters(sb, input, numberOfDecodedCharacters);
+                numberOfDecodedCharacters += decodeEncodedCharacters(output, input, numberOfDecodedCharacters, end);
             } else {
-                sb.append(decodeSpecialCharacter(character));
+                output.append(decodeSpecialCharacter(character));
                 numberOfDecodedCharacters++;
             }
         }
+    }
 
-        return sb.toString();
+    /**
+     * @return Index of the first character of input that must be decoded or -1 if input can be used as is.
+     */
+    int indexOfFirstCharacterToDecode(CharSequence input) {
+        return indexOfFirstCharacterToDecode(input, 0, input.length());
+    }
+
+    private int indexOfFirstCharacterToDecode(CharSequence input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char character = input.charAt(i);
+            if (character == UriEncoding.ENCODED_CHARACTER_PREFIX || decodeSpecialCharacter(character) != character) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     public char decodeSpecialCharacter(char c) {
@@ -51,13 +96,20 @@ class UriDecoder {
         return c;
     }
 
-    public int decodeEncodedCharacters(StringBuffer output, String input, int index) {
+    /**
+     * Decode the escaped bytes starting at index, an escape only counts if its two hexadecimal digits are before end.
+     * A truncated escape, like "%4" at the end of the range, is appended as is.
+     *
+     * @return Number of characters of input that have been consumed.
+     */
+    public int decodeEncodedCharacters(StringBuilder output, CharSequence input, int index, int end) {
         int numberOfBytes = 0;
-        while (index + numberOfBytes * 3 < input.length() && input.charAt(index + numberOfBytes * 3) == UriEncoding.ENCODED_CHARACTER_PREFIX) {
+        while (index + numberOfBytes * 3 + 2 < end && input.charAt(index + numberOfBytes * 3) == UriEncoding.ENCODED_CHARACTER_PREFIX) {
             numberOfBytes++;
         }
         if (numberOfBytes == 0) {
-            return 0;
+            output.append(input.charAt(index));
+            return 1;
         }
         byte[] encodedCharacterBytes = new byte[numberOfBytes];
         for (int i = 0; i < numberOfBytes; i++) {
@@ -16,81 +16,96 @@
 package fr.cvlaminck.builders.uri.encoding;
 
 import java.nio.charset.Charset;
-import java.util.Arrays;
-import java.util.List;
 
+/**
+ * Immutable encoder, safe to be used concurrently by multiple threads.
+ */
 class UriEncoder {
-    private final static String hexEncodingCharacters = "0123456789ABCDEF";
-
-    private Charset charset;
+    private final PercentEncoder percentEncoder;
 
     UriEncoder(Charset charset) {
-        this.charset = charset;
+        this.percentEncoder = PercentEncoder.forCharset(charset);
     }
 
-    private List<CharacterSpan> nonEncodedCharacters = Arrays.asList(
-            CharacterSpan.newRange('a', 'z'),
-            CharacterSpan.newRange('A', 'Z'),
-            CharacterSpan.newRange('0', '9'),
-            CharacterSpan.newSingleCharacter('.'),
-            CharacterSpan.newSingleCharacter('-'),
-            CharacterSpan.newSingleCharacter('_'),
-            CharacterSpan.newSingleCharacter('~')
-    );
-
-    public String encode(String input) {
+    public String encode(String input, EncodingProfile profile) {
         if (input == null) {
             return null;
         }
-        StringBuffer sb = new StringBuffer(input.length());
-        int numberOfEncodedCharacters = 0;
+        int indexOfFirstCharacterToEncode = indexOfFirstCharacterToEncode(input, profile);
+        if (indexOfFirstCharacterToEncode == -1) {
+            return input;
+        }
+        StringBuilder sb = new StringBuilder(input.length() + 16);
+        sb.append(input, 0, indexOfFirstCharacterToEncode);
+        encodeTo(input, indexOfFirstCharacterToEncode, sb, profile);
+        return sb.toString();
+    }
+
+    public void encodeTo(CharSequence input, StringBuilder output, EncodingProfile profile) {
+        int indexOfFirstCharacterToEncode = indexOfFirstCharacterToEncode(input, profile);
+        if (indexOfFirstCharacterToEncode == -1) {
+            output.append(input);
+            return;
+        }
+        output.append(input, 0, indexOfFirstCharacterToEncode);
+        encodeTo(input, indexOfFirstCharacterToEncode, output, profile);
+    }
+
+    private void encodeTo(CharSequence input, int start, StringBuilder output, EncodingProfile profile) {
+        int numberOfEncodedCharacters = start;
         while (numberOfEncodedCharacters < input.length()) {
             char character = input.charAt(numberOfEncodedCharacters);
-            if (shouldEncodeCharacter(character)) {
-                sb.append(encodeCharacter(character));
+            if (profile.nonEncodedCharacters.contains(character)) {
+                output.append(character);
+                numberOfEncodedCharacters++;
+            } else if (isSpecialCharacter(character, profile)) {
+                output.append(encodeSpecialCharacter(character));
+                numberOfEncodedCharacters++;
             } else {
-                sb.append(character);
+                int endOfRun = indexOfEndOfRun(input, numberOfEncodedCharacters, profile);
+                percentEncoder.encode(input, numberOfEncodedCharacters, endOfRun, output);
+                numberOfEncodedCharacters = endOfRun;
             }
-            numberOfEncodedCharacters++;
         }
-        return sb.toString();
     }
 
-    private boolean shouldEncodeCharacter(char character) {
-        for (CharacterSpan span : nonEncodedCharacters) {
-            if (span.contains(character)) {
-                return false;
+    /**
+     * @return Index of the first character of input that must be encoded or -1 if input can be used as is.
+     */
+    int indexOfFirstCharacterToEncode(CharSequence input, EncodingProfile profile) {
+        for (int i = 0; i < input.length(); i++) {
+            if (!profile.nonEncodedCharacters.contains(input.charAt(i))) {
+                return i;
             }
         }
-        return true;
+        return -1;
     }
 
-    public String encodeCharacter(char input) {
-        String encodedCharacter = encodeSpecialCharacter(input);
-        if (encodedCharacter == null) {
-            encodedCharacter = encodeSimpleCharacter(input);
+    /**
+     * @return Index of the first character after start that must not be pct-encoded.
+     */
+    private int indexOfEndOfRun(CharSequence input, int start, EncodingProfile profile) {
+        int index = start + 1;
+        while (index < input.length()) {
+            char character = input.charAt(index);
+            if (profile.nonEncodedCharacters.contains(character) || isSpecialCharacter(character, profile)) {
+                break;
+            }
+            index++;
         }
-        return encodedCharacter;
+        return index;
     }
 
-    private String encodeSpecialCharacter(char input) {
-        switch (input) {
-            case ' ':
-                return "+";
-        }
-        return null;
+    private boolean isSpecialCharacter(char character, EncodingProfile profile) {
+        return character == ' ' && profile.spaceAsPlus;
     }
 
-    private String encodeSimpleCharacter(char input) {
-        byte[] bytes = Character.toString(input).getBytes(charset);
-        StringBuffer sb = new StringBuffer(3 * bytes.length);
-        for (byte b : bytes) {
-            sb.append(UriEncoding.ENCODED_CHARACTER_PREFIX);
-            sb.append(hexEncodingCharacters.charAt((b >> 4) & 0x0F));
-            sb.append(hexEncodingCharacters.charAt(b & 0xF));
+    private char encodeSpecialCharacter(char input) {
+        switch (input) {
+            case ' ':
+                return '+';
         }
-        return sb.toString();
+        throw new IllegalArgumentException("'" + input + "' is not a special character");
     }
 
-
 }
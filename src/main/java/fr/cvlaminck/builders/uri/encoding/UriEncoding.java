@@ -17,59 +17,65 @@ package fr.cvlaminck.builders.uri.encoding;
 
 import fr.cvlaminck.builders.exception.MissingCharsetException;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Encode and decode values using a charset. Instances are immutable and do not rely on any lock,
+ * so a single instance can safely be shared by any number of threads.
+ */
 public class UriEncoding {
     public static final char ENCODED_CHARACTER_PREFIX = '%';
     public static final String DEFAULT_CHARSET = "UTF-8";
 
-    private Charset charset;
-    private static String defaultCharsetName = DEFAULT_CHARSET;
+    private static final ConcurrentMap<Charset, UriEncoding> instances = new ConcurrentHashMap<Charset, UriEncoding>();
+    private static volatile UriEncoding defaultInstance = forCharset(getCharset(DEFAULT_CHARSET));
 
-    private UriEncoder encoder = null;
-    private UriDecoder decoder = null;
+    private final Charset charset;
 
-    private UriEncoder getEncoder() {
-        if (encoder == null) {
-            synchronized (this) {
-                if (encoder == null) {
-                    encoder = new UriEncoder(charset);
-                }
-            }
-        }
-        return encoder;
-    }
+    private final UriEncoder encoder;
+    private final UriDecoder decoder;
 
-    private UriDecoder getDecoder() {
-        if (decoder == null) {
-            synchronized (this) {
-                if (decoder == null) {
-                    decoder = new UriDecoder(charset);
-                }
-            }
+    /**
+     * Prefer {@code forCharset} that returns an instance shared through all the library.
+     */
+    public UriEncoding(Charset charset) {
+        if (charset == null) {
+            throw new NullPointerException();
         }
-        return decoder;
+        this.charset = charset;
+        this.encoder = new UriEncoder(charset);
+        this.decoder = new UriDecoder(charset);
     }
 
-    public UriEncoding(Charset charset) {
+    /**
+     * Returns the UriEncoding encoding/decoding using the charset passed as parameter.
+     * Instances are immutable, thread-safe and shared, so calling this method multiple times with the same charset
+     * returns the same instance.
+     */
+    public static UriEncoding forCharset(Charset charset) {
         if (charset == null) {
             throw new NullPointerException();
         }
-        this.charset = charset;
+        UriEncoding uriEncoding = instances.get(charset);
+        if (uriEncoding == null) {
+            UriEncoding newUriEncoding = new UriEncoding(charset);
+            uriEncoding = instances.putIfAbsent(charset, newUriEncoding);
+            if (uriEncoding == null) {
+                uriEncoding = newUriEncoding;
+            }
+        }
+        return uriEncoding;
     }
 
     /**
      * Returns an UriEncoding encoding/decoding using the default charset. By default, the default charset is UTF-8 but
      * may be changed using {@code setDefaultCharset}.
-     *
-     * @throws fr.cvlaminck.builders.exception.MissingCharsetException thrown if the default charset is not available on the platform
      */
     public static UriEncoding getDefault() {
-        Charset defaultCharset = Charset.forName(defaultCharsetName);
-        if (defaultCharset == null) {
-            throw new MissingCharsetException(defaultCharsetName);
-        }
-        return new UriEncoding(defaultCharset);
+        return defaultInstance;
     }
 
     /**
@@ -79,24 +85,130 @@ public class UriEncoding {
      * @throws fr.cvlaminck.builders.exception.MissingCharsetException thrown if charset is not available on the platform
      */
     public static void setDefaultCharset(String defaultCharset) {
-        Charset charset = Charset.forName(defaultCharsetName);
-        if (charset == null) {
-            throw new MissingCharsetException(defaultCharset);
+        defaultInstance = forCharset(getCharset(defaultCharset));
+    }
+
+    private static Charset getCharset(String charsetName) {
+        try {
+            return Charset.forName(charsetName);
+        } catch (IllegalArgumentException ex) {
+            throw new MissingCharsetException(charsetName);
         }
-        defaultCharsetName = defaultCharset;
+    }
+
+    /**
+     * Returns the charset used by this instance to encode/decode values.
+     */
+    public Charset getCharset() {
+        return charset;
     }
 
     /**
      * Encode the input using the charset set for this instance of UriEncoding.
+     * All characters except unreserved ones are encoded and space is encoded as '+'.
      */
     public String encode(String input) {
-        return getEncoder().encode(input);
+        return encode(input, EncodingProfile.FORM);
+    }
+
+    /**
+     * Encode the input using the charset set for this instance of UriEncoding.
+     * Only characters that are not allowed by the profile will be encoded.
+     */
+    public String encode(String input, EncodingProfile profile) {
+        return encoder.encode(input, profile);
+    }
+
+    /**
+     * Encode the input using the charset set for this instance of UriEncoding and append
+     * the result to the output. Nothing is appended if input is null.
+     */
+    public void encodeTo(CharSequence input, StringBuilder output) {
+        encodeTo(input, output, EncodingProfile.FORM);
+    }
+
+    /**
+     * Encode the input using the charset set for this instance of UriEncoding and the profile, and append
+     * the result to the output. Nothing is appended if input is null.
+     */
+    public void encodeTo(CharSequence input, StringBuilder output, EncodingProfile profile) {
+        if (input != null) {
+            encoder.encodeTo(input, output, profile);
+        }
+    }
+
+    /**
+     * Encode the input using the charset set for this instance of UriEncoding and append
+     * the result to the output. Nothing is appended if input is null.
+     *
+     * @throws java.io.IOException if the output throws one while appending
+     */
+    public void encodeTo(CharSequence input, Appendable output) throws IOException {
+        encodeTo(input, output, EncodingProfile.FORM);
+    }
+
+    /**
+     * Encode the input using the charset set for this instance of UriEncoding and the profile, and append
+     * the result to the output. Nothing is appended if input is null.
+     *
+     * @throws java.io.IOException if the output throws one while appending
+     */
+    public void encodeTo(CharSequence input, Appendable output, EncodingProfile profile) throws IOException {
+        if (output instanceof StringBuilder) {
+            encodeTo(input, (StringBuilder) output, profile);
+        } else if (input != null) {
+            if (encoder.indexOfFirstCharacterToEncode(input, profile) == -1) {
+                output.append(input);
+            } else {
+                StringBuilder sb = new StringBuilder(input.length() + 16);
+                encoder.encodeTo(input, sb, profile);
+                output.append(sb);
+            }
+        }
     }
 
     /**
      * Decode the input using the charset set for this instance of UriEncoding.
      */
     public String decode(String input) {
-        return getDecoder().decode(input);
+        return decoder.decode(input);
+    }
+
+    /**
+     * Decode the input using the charset set for this instance of UriEncoding and append
+     * the result to the output. Nothing is appended if input is null.
+     */
+    public void decodeTo(CharSequence input, StringBuilder output) {
+        if (input != null) {
+            decoder.decodeTo(input, output);
+        }
+    }
+
+    /**
+     * Decode the characters of input between start (inclusive) and end (exclusive) using the charset set
+     * for this instance of UriEncoding and append the result to the output.
+     */
+    public void decodeTo(CharSequence input, int start, int end, StringBuilder output) {
+        decoder.decodeTo(input, start, end, output);
+    }
+
+    /**
+     * Decode the input using the charset set for this instance of UriEncoding and append
+     * the result to the output. Nothing is appended if input is null.
+     *
+     * @throws java.io.IOException if the output throws one while appending
+     */
+    public void decodeTo(CharSequence input, Appendable output) throws IOException {
+        if (output instanceof StringBuilder) {
+            decodeTo(input, (StringBuilder) output);
+        } else if (input != null) {
+            if (decoder.indexOfFirstCharacterToDecode(input) == -1) {
+                output.append(input);
+            } else {
+                StringBuilder sb = new StringBuilder(input.length());
+                decoder.decodeTo(input, sb);
+                output.append(sb);
+            }
+        }
     }
 }
@@ -0,0 +1,54 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.encoding;
+
+/**
+ * PercentEncoder converting characters into UTF-8 bytes without intermediate allocations.
+ * Unpaired surrogates are replaced by a question mark, like String.getBytes does.
+ */
+class Utf8PercentEncoder
+        extends PercentEncoder {
+    private final static int REPLACEMENT_BYTE = '?';
+
+    @Override
+    void encode(CharSequence input, int start, int end, StringBuilder output) {
+        for (int i = start; i < end; i++) {
+            char character = input.charAt(i);
+            if (character < 0x80) {
+                appendEncodedByte(output, character);
+            } else if (character < 0x800) {
+                appendEncodedByte(output, 0xC0 | (character >> 6));
+                appendEncodedByte(output, 0x80 | (character & 0x3F));
+            } else if (!isSurrogate(character)) {
+                appendEncodedByte(output, 0xE0 | (character >> 12));
+                appendEncodedByte(output, 0x80 | ((character >> 6) & 0x3F));
+                appendEncodedByte(output, 0x80 | (character & 0x3F));
+            } else if (Character.isHighSurrogate(character) && i + 1 < end && Character.isLowSurrogate(input.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(character, input.charAt(++i));
+                appendEncodedByte(output, 0xF0 | (codePoint >> 18));
+                appendEncodedByte(output, 0x80 | ((codePoint >> 12) & 0x3F));
+                appendEncodedByte(output, 0x80 | ((codePoint >> 6) & 0x3F));
+                appendEncodedByte(output, 0x80 | (codePoint & 0x3F));
+            } else {
+                appendEncodedByte(output, REPLACEMENT_BYTE);
+            }
+        }
+    }
+
+    private boolean isSurrogate(char character) {
+        return character >= Character.MIN_SURROGATE && character <= Character.MAX_SURROGATE;
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.parser;
+
+import fr.cvlaminck.builders.authority.Authority;
+import fr.cvlaminck.builders.internal.ComponentAccess;
+import fr.cvlaminck.builders.path.Path;
+import fr.cvlaminck.builders.query.QueryParameters;
+import fr.cvlaminck.builders.uri.Uri;
+import fr.cvlaminck.builders.uri.encoding.AsciiCharSequence;
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Uri keeping only its characters, one byte each, and the packed offsets of its components. Offsets are stored
+ * in a char[] when the uri is shorter than 65535 characters, in an int[] otherwise.
+ * <p/>
+ * Unlike {@link LazyUri}, components are built from the offsets on each access and never kept, so the footprint
+ * of the uri does not grow once it has been read. It is meant to hold a large number of uris in memory; callers
+ * reading the same component many times should keep it or use an uri returned by {@link Uri#parse(CharSequence)}.
+ * <p/>
+ * Characters are the ones of the uri rendered from its components, so {@link #toString()}, {@link #equals(Object)}
+ * and {@link #hashCode()} work on them directly.
+ */
+class CompactUri
+        extends Uri {
+    private static final int MAX_CHARACTER = 0xFF;
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    private final byte[] characters;
+    private final char[] shortOffsets;
+    private final int[] offsets;
+    private int hashCode;
+
+    private CompactUri(UriEncoding uriEncoding, byte[] characters, int[] offsets) {
+        super(uriEncoding);
+        this.characters = characters;
+        if (characters.length < Character.MAX_VALUE) {
+            //Offsets are shifted by one so absent components, stored as -1, fit in an unsigned char.
+            this.shortOffsets = new char[offsets.length];
+            for (int i = 0; i < offsets.length; i++) {
+                this.shortOffsets[i] = (char) (offsets[i] + 1);
+            }
+            this.offsets = null;
+        } else {
+            this.shortOffsets = null;
+            this.offsets = offsets;
+        }
+    }
+
+    /**
+     * Returns a compact uri for the validated offsets, or a lazy uri if the uri contains a character
+     * that does not fit in one byte. The offsets must be the ones of a canonical uri, see {@link #isCanonical(UriOffsets)}.
+     */
+    static Uri of(UriEncoding uriEncoding, UriOffsets offsets) {
+        CharSequence source = offsets.source;
+        byte[] characters = new byte[source.length()];
+        for (int i = 0; i < characters.length; i++) {
+            char character = source.charAt(i);
+            if (character > MAX_CHARACTER) {
+                //The source may be a reused buffer, the lazy uri must keep its own copy.
+                return new LazyUri(uriEncoding, UriOffsets.unpack(source.toString(), offsets.pack()));
+            }
+            characters[i] = (byte) character;
+        }
+        return new CompactUri(uriEncoding, characters, offsets.pack());
+    }
+
+    /**
+     * Returns true if the uri is written like the uri built from its components, i.e. the parser would not drop
+     * or add any character when rendering it.
+     */
+    static boolean isCanonical(UriOffsets offsets) {
+        CharSequence source = offsets.source;
+        if (offsets.hasAuthority()) {
+            if (offsets.userInformationEnd == offsets.authorityStart) { //Empty user information is ignored
+                return false;
+            }
+            if (offsets.portStart != -1 && offsets.authorityEnd - offsets.portStart > 1 && source.charAt(offsets.portStart) == '0') {
+                return false;
+            }
+            if (offsets.pathStart == offsets.pathEnd) { //Path is always absolute after an authority
+                return false;
+            }
+        }
+        if (offsets.pathSegmentCount != 0 && source.charAt(offsets.pathEnd - 1) == Path.pathSegmentSeparatorChar) {
+            return false;
+        }
+        return offsets.fragmentStart != source.length(); //Empty fragment is ignored
+    }
+
+    private int offset(int index) {
+        return (offsets != null) ? offsets[index] : shortOffsets[index] - 1;
+    }
+
+    private String string(int start, int end) {
+        return new String(characters, start, end - start, ISO_8859_1);
+    }
+
+    @Override
+    public String getScheme() {
+        return string(0, offset(UriOffsets.SCHEME_END));
+    }
+
+    @Override
+    public boolean hasAuthority() {
+        return offset(UriOffsets.AUTHORITY_START) != -1;
+    }
+
+    @Override
+    public Authority getAuthority() {
+        int authorityStart = offset(UriOffsets.AUTHORITY_START);
+        if (authorityStart == -1) {
+            return null;
+        }
+        String userInformation = null;
+        int userInformationEnd = offset(UriOffsets.USER_INFORMATION_END);
+        if (userInformationEnd > authorityStart) {
+            userInformation = string(authorityStart, userInformationEnd);
+        }
+        String host = string(offset(UriOffsets.HOST_START), offset(UriOffsets.HOST_END));
+        Integer port = null;
+        int portStart = offset(UriOffsets.PORT_START);
+        if (portStart != -1) {
+            port = UriParser.parsePort(AsciiCharSequence.wrap(characters, 0, characters.length), portStart, offset(UriOffsets.AUTHORITY_END));
+        }
+        return ComponentAccess.getAuthorityFactory().create(UriEncoding.getDefault(), userInformation, host, port);
+    }
+
+    @Override
+    public Path getPath() {
+        String[] pathSegments = new String[offset(UriOffsets.PATH_SEGMENT_COUNT)];
+        for (int i = 0; i < pathSegments.length; i++) {
+            int index = UriOffsets.PATH_SEGMENT_OFFSETS + i * 2;
+            pathSegments[i] = string(offset(index), offset(index + 1));
+        }
+        //When authority is present, the path is always absolute.
+        boolean absolute = offset(UriOffsets.PATH_ABSOLUTE) == 1 || hasAuthority();
+        return ComponentAccess.getPathFactory().create(UriEncoding.getDefault(), absolute, pathSegments);
+    }
+
+    @Override
+    public boolean hasQuery() {
+        return offset(UriOffsets.QUERY_START) != -1;
+    }
+
+    @Override
+    public String getEncodedQuery() {
+        if (!hasQuery()) {
+            return null;
+        }
+        return string(offset(UriOffsets.QUERY_START), offset(UriOffsets.QUERY_END));
+    }
+
+    @Override
+    public QueryParameters getQueryParameters() {
+        if (!hasQuery()) {
+            return null;
+        }
+        int queryStart = offset(UriOffsets.QUERY_START);
+        return QueryParameters.tryParse(AsciiCharSequence.wrap(characters, queryStart, offset(UriOffsets.QUERY_END) - queryStart)).getValue();
+    }
+
+    @Override
+    public String getEncodedFragment() {
+        int fragmentStart = offset(UriOffsets.FRAGMENT_START);
+        if (fragmentStart == -1 || fragmentStart == characters.length) {
+            return null;
+        }
+        return string(fragmentStart, characters.length);
+    }
+
+    @Override
+    public String getQuery() {
+        return getUriEncoding().decode(getEncodedQuery());
+    }
+
+    @Override
+    public String getFragment() {
+        return getUriEncoding().decode(getEncodedFragment());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof CompactUri) {
+            //Offsets only depend on the characters.
+            return Arrays.equals(characters, ((CompactUri) o).characters);
+        }
+        if (o == null || !(o instanceof Uri)) return false;
+        String encodedUri = o.toString();
+        if (encodedUri.length() != characters.length) {
+            return false;
+        }
+        for (int i = 0; i < characters.length; i++) {
+            if (encodedUri.charAt(i) != (characters[i] & MAX_CHARACTER)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same value as the hash code of {@link #toString()}, so compact uris can be mixed with other uris in hash based collections.
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = this.hashCode;
+        if (hashCode == 0) {
+            for (int i = 0; i < characters.length; i++) {
+                hashCode = 31 * hashCode + (characters[i] & MAX_CHARACTER);
+            }
+            this.hashCode = hashCode;
+        }
+        return hashCode;
+    }
+
+    /**
+     * The rendered uri is not kept, it would take more memory than the uri itself.
+     */
+    @Override
+    public String toString() {
+        return new String(characters, ISO_8859_1);
+    }
+
+    @Override
+    public void appendTo(StringBuilder output) {
+        for (int i = 0; i < characters.length; i++) {
+            output.append((char) (characters[i] & MAX_CHARACTER));
+        }
+    }
+}
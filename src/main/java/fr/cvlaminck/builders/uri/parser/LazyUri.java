@@ -0,0 +1,169 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.parser;
+
+import fr.cvlaminck.builders.authority.Authority;
+import fr.cvlaminck.builders.path.Path;
+import fr.cvlaminck.builders.query.QueryParameters;
+import fr.cvlaminck.builders.uri.Uri;
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+
+/**
+ * Uri keeping the parsed string and the offsets of its components. Components are only built on
+ * their first access, the string having been validated by the {@code UriParser} beforehand.
+ * <p/>
+ * Components are immutable, so two threads building the same component at the same time
+ * is harmless: both get an equal value and one of them is kept.
+ */
+class LazyUri
+        extends Uri {
+
+    private final UriOffsets offsets;
+
+    private String scheme;
+    private volatile Authority authority;
+    private volatile Path path;
+    private String query;
+    private volatile QueryParameters queryParameters;
+    private volatile boolean queryParametersParsed;
+    private String fragment;
+
+    private String encodedUri;
+    private String decodedQuery;
+    private String decodedFragment;
+
+    LazyUri(UriEncoding uriEncoding, UriOffsets offsets) {
+        super(uriEncoding);
+        this.offsets = offsets;
+    }
+
+    @Override
+    public String getScheme() {
+        String scheme = this.scheme;
+        if (scheme == null) {
+            scheme = offsets.source.subSequence(0, offsets.schemeEnd).toString();
+            this.scheme = scheme;
+        }
+        return scheme;
+    }
+
+    @Override
+    public boolean hasAuthority() {
+        return offsets.hasAuthority();
+    }
+
+    @Override
+    public Authority getAuthority() {
+        if (!offsets.hasAuthority()) {
+            return null;
+        }
+        Authority authority = this.authority;
+        if (authority == null) {
+            authority = UriParser.buildAuthority(offsets);
+            this.authority = authority;
+        }
+        return authority;
+    }
+
+    @Override
+    public Path getPath() {
+        Path path = this.path;
+        if (path == null) {
+            path = UriParser.buildPath(offsets);
+            this.path = path;
+        }
+        return path;
+    }
+
+    @Override
+    public boolean hasQuery() {
+        return offsets.queryStart != -1;
+    }
+
+    @Override
+    public String getEncodedQuery() {
+        if (offsets.queryStart == -1) {
+            return null;
+        }
+        String query = this.query;
+        if (query == null) {
+            query = offsets.source.subSequence(offsets.queryStart, offsets.queryEnd).toString();
+            this.query = query;
+        }
+        return query;
+    }
+
+    @Override
+    public QueryParameters getQueryParameters() {
+        if (!queryParametersParsed) {
+            queryParameters = QueryParameters.tryParse(getEncodedQuery()).getValue();
+            queryParametersParsed = true;
+        }
+        return queryParameters;
+    }
+
+    @Override
+    public String getEncodedFragment() {
+        if (offsets.fragmentStart == -1 || offsets.fragmentStart == offsets.source.length()) {
+            return null;
+        }
+        String fragment = this.fragment;
+        if (fragment == null) {
+            fragment = offsets.source.subSequence(offsets.fragmentStart, offsets.source.length()).toString();
+            this.fragment = fragment;
+        }
+        return fragment;
+    }
+
+    @Override
+    public String getQuery() {
+        String decodedQuery = this.decodedQuery;
+        if (decodedQuery == null) {
+            decodedQuery = super.getQuery();
+            this.decodedQuery = decodedQuery;
+        }
+        return decodedQuery;
+    }
+
+    @Override
+    public String getFragment() {
+        String decodedFragment = this.decodedFragment;
+        if (decodedFragment == null) {
+            decodedFragment = super.getFragment();
+            this.decodedFragment = decodedFragment;
+        }
+        return decodedFragment;
+    }
+
+    @Override
+    public String toString() {
+        String encodedUri = this.encodedUri;
+        if (encodedUri == null) {
+            encodedUri = super.toString();
+            this.encodedUri = encodedUri;
+        }
+        return encodedUri;
+    }
+
+    @Override
+    public void appendTo(StringBuilder output) {
+        if (encodedUri != null) {
+            output.append(encodedUri);
+        } else {
+            super.appendTo(output);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.parser;
+
+import fr.cvlaminck.builders.exception.MalformedUriException;
+
+/**
+ * Description of why a value cannot be parsed: the malformed component, the reason
+ * and the offset of the first character that makes it malformed.
+ */
+public final class ParseError {
+
+    public enum Reason {
+        /**
+         * The component is null or empty while it is required.
+         */
+        EMPTY,
+        /**
+         * The character at the offset is not allowed in the component.
+         */
+        INVALID_CHARACTER,
+        /**
+         * A separator expected at the offset is missing.
+         */
+        MISSING_SEPARATOR,
+        /**
+         * The numeric value starting at the offset is out of the allowed range.
+         */
+        OUT_OF_RANGE,
+        /**
+         * The component starting at the offset does not match its format as a whole.
+         */
+        INVALID_FORMAT
+    }
+
+    private final UriComponent component;
+    private final Reason reason;
+    private final int offset;
+
+    public ParseError(UriComponent component, Reason reason, int offset) {
+        this.component = component;
+        this.reason = reason;
+        this.offset = offset;
+    }
+
+    public UriComponent getComponent() {
+        return component;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the offset of the error in the parsed value.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the exception thrown by the throwing API for this error.
+     */
+    public MalformedUriException toException() {
+        return component.newException();
+    }
+
+    @Override
+    public String toString() {
+        return component + " " + reason + " at offset " + offset;
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.parser;
+
+import fr.cvlaminck.builders.exception.MalformedUriException;
+
+/**
+ * Result of a tryParse method: either the parsed value or the error that prevented to parse it.
+ * No exception is created unless {@link #getOrThrow()} is called on a failed result.
+ */
+public final class ParseResult<T> {
+    private final T value;
+    private final ParseError error;
+
+    private ParseResult(T value, ParseError error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public static <T> ParseResult<T> success(T value) {
+        return new ParseResult<T>(value, null);
+    }
+
+    public static <T> ParseResult<T> failure(ParseError error) {
+        return new ParseResult<T>(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Returns the parsed value or null if the parsing has failed.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the error or null if the parsing has succeeded.
+     */
+    public ParseError getError() {
+        return error;
+    }
+
+    /**
+     * Returns the parsed value.
+     *
+     * @throws MalformedUriException the exception matching the error if the parsing has failed.
+     */
+    public T getOrThrow() {
+        if (error != null) {
+            throw error.toException();
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return (error != null) ? error.toString() : String.valueOf(value);
+    }
+}
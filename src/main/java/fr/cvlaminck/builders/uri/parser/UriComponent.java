@@ -0,0 +1,105 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.parser;
+
+import fr.cvlaminck.builders.exception.*;
+
+/**
+ * Components of an uri that can be reported in a {@link ParseError}.
+ * Each component knows the exception thrown by the throwing API when it is malformed.
+ */
+public enum UriComponent {
+    URI {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedUriException();
+        }
+    },
+    SCHEME {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedSchemeException();
+        }
+    },
+    AUTHORITY {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedAuthorityException();
+        }
+    },
+    USER_INFORMATION {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedAuthorityException();
+        }
+    },
+    IP_LITERAL {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedIpLiteralException();
+        }
+    },
+    IPV4_ADDRESS {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedIpV4AddressException();
+        }
+    },
+    REGISTERED_NAME {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedRegisteredNameException();
+        }
+    },
+    PORT {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedAuthorityException();
+        }
+    },
+    PATH {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedPathException();
+        }
+    },
+    PATH_SEGMENT {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedPathSegmentException();
+        }
+    },
+    QUERY {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedQueryException();
+        }
+    },
+    QUERY_PARAMETERS {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedQueryParametersException();
+        }
+    },
+    FRAGMENT {
+        @Override
+        MalformedUriException newException() {
+            return new MalformedFragmentException();
+        }
+    };
+
+    abstract MalformedUriException newException();
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright 2015 Cyril Vlaminck
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package fr.cvlaminck.builders.uri.parser;
+
+/**
+ * Boundaries of the components of an uri, recorded by the {@code UriParser} while
+ * scanning the uri once from left to right. Start offsets are inclusive, end offsets exclusive.
+ * An offset of -1 means that the component is not present in the uri.
+ */
+class UriOffsets {
+    final CharSequence source;
+
+    int schemeEnd = -1;
+
+    int authorityStart = -1;
+    int authorityEnd = -1;
+    int userInformationEnd = -1;
+    int hostStart = -1;
+    int hostEnd = -1;
+    int portStart = -1;
+
+    int pathStart = -1;
+    int pathEnd = -1;
+    boolean pathAbsolute = false;
+    /**
+     * Start and end offsets of each path segment, stored one after the other.
+     */
+    int[] pathSegmentOffsets = new int[8];
+    int pathSegmentCount = 0;
+
+    int queryStart = -1;
+    int queryEnd = -1;
+
+    int fragmentStart = -1;
+
+    UriOffsets(CharSequence source) {
+        this.source = source;
+    }
+
+    boolean hasAuthority() {
+        return authorityStart != -1;
+    }
+
+    void addPathSegment(int start, int end) {
+        int index = pathSegmentCount * 2;
+        if (index + 2 > pathSegmentOffsets.length) {
+            int[] offsets = new int[pathSegmentOffsets.length * 2];
+            System.arraycopy(pathSegmentOffsets, 0, offsets, 0, pathSegmentOffsets.length);
+            pathSegmentOffsets = offsets;
+        }
+        pathSegmentOffsets[index] = start;
+        pathSegmentOffsets[index + 1] = end;
+        pathSegmentCount++;
+    }
+
+    int getPathSegmentStart(int index) {
+        return pathSegmentOffsets[index * 2];
+    }
+
+    int getPathSegmentEnd(int index) {
+        return pathSegmentOffsets[index * 2 + 1];
+    }
+
+    static final int SCHEME_END = 0;
+    static final int AUTHORITY_START = 1;
+    static final int AUTHORITY_END = 2;
+    static final int USER_INFORMATION_END = 3;
+    static final int HOST_START = 4;
+    static final int HOST_END = 5;
+    static final int PORT_START = 6;
+    static final int PATH_START = 7;
+    static final int PATH_END = 8;
+    static final int PATH_ABSOLUTE = 9;
+    static final int QUERY_START = 10;
+    static final int QUERY_END = 11;
+    static final int FRAGMENT_START = 12;
+    static final int PATH_SEGMENT_COUNT = 13;
+    static final int PATH_SEGMENT_OFFSETS = 14;
+
+    /**
+     * Returns all offsets in a single array, indexed by the constants above. The offsets of the path segments
+     * are stored at the end of the array.
+     */
+    int[] pack() {
+        int[] packed = new int[PATH_SEGMENT_OFFSETS + pathSegmentCount * 2];
+        packed[SCHEME_END] = schemeEnd;
+        packed[AUTHORITY_START] = authorityStart;
+        packed[AUTHORITY_END] = authorityEnd;
+        packed[USER_INFORMATION_END] = userInformationEnd;
+        packed[HOST_START] = hostStart;
+        packed[HOST_END] = hostEnd;
+        packed[PORT_START] = portStart;
+        packed[PATH_START] = pathStart;
+        packed[PATH_END] = pathEnd;
+        packed[PATH_ABSOLUTE] = pathAbsolute ? 1 : 0;
+        packed[QUERY_START] = queryStart;
+        packed[QUERY_END] = queryEnd;
+        packed[FRAGMENT_START] = fragmentStart;
+        packed[PATH_SEGMENT_COUNT] = pathSegmentCount;
+        System.arraycopy(pathSegmentOffsets, 0, packed, PATH_SEGMENT_OFFSETS, pathSegmentCount * 2);
+        return packed;
+    }
+
+    /**
+     * Returns the offsets stored in an array returned by {@link #pack()}.
+     */
+    static UriOffsets unpack(CharSequence source, int[] packed) {
+        UriOffsets offsets = new UriOffsets(source);
+        offsets.schemeEnd = packed[SCHEME_END];
+        offsets.authorityStart = packed[AUTHORITY_START];
+        offsets.authorityEnd = packed[AUTHORITY_END];
+        offsets.userInformationEnd = packed[USER_INFORMATION_END];
+        offsets.hostStart = packed[HOST_START];
+        offsets.hostEnd = packed[HOST_END];
+        offsets.portStart = packed[PORT_START];
+        offsets.pathStart = packed[PATH_START];
+        offsets.pathEnd = packed[PATH_END];
+        offsets.pathAbsolute = packed[PATH_ABSOLUTE] == 1;
+        offsets.queryStart = packed[QUERY_START];
+        offsets.queryEnd = packed[QUERY_END];
+        offsets.fragmentStart = packed[FRAGMENT_START];
+        offsets.pathSegmentCount = packed[PATH_SEGMENT_COUNT];
+        offsets.pathSegmentOffsets = new int[Math.max(offsets.pathSegmentCount * 2, 2)];
+        System.arraycopy(packed, PATH_SEGMENT_OFFSETS, offsets.pathSegmentOffsets, 0, offsets.pathSegmentCount * 2);
+        return offsets;
+    }
+}
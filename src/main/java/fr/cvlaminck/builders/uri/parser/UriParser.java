@@ -15,12 +15,21 @@
  */
 package fr.cvlaminck.builders.uri.parser;
 
-import fr.cvlaminck.builders.exception.MalformedSchemeException;
+import fr.cvlaminck.builders.authority.Authority;
+import fr.cvlaminck.builders.authority.AuthorityValidator;
 import fr.cvlaminck.builders.exception.MalformedUriException;
+import fr.cvlaminck.builders.internal.ComponentAccess;
 import fr.cvlaminck.builders.path.Path;
+import fr.cvlaminck.builders.path.PathValidator;
 import fr.cvlaminck.builders.uri.Uri;
-import fr.cvlaminck.builders.uri.UriBuilder;
+import fr.cvlaminck.builders.uri.UriValidator;
+import fr.cvlaminck.builders.uri.encoding.CharacterSets;
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
 
+/**
+ * Parse an uri in two steps. The uri is first scanned once from left to right to record
+ * the boundaries of its components, then the components are built from those boundaries.
+ */
 public class UriParser {
 
     private UriParserOptions options;
@@ -34,102 +43,275 @@ public class UriParser {
     }
 
     public Uri parse(String sUri) {
-        if (sUri == null || sUri.isEmpty()) {
-            throw new MalformedUriException();
+        return parse((CharSequence) sUri);
+    }
+
+    /**
+     * Parse the uri contained in the CharSequence. Components are copied out of sUri,
+     * it is never copied as a whole except when a lazy uri must keep it.
+     *
+     * @throws MalformedUriException or one of its subclasses if the uri is malformed.
+     */
+    public Uri parse(CharSequence sUri) {
+        return tryParse(sUri).getOrThrow();
+    }
+
+    /**
+     * Parse the uri contained in the CharSequence without throwing any exception.
+     *
+     * @return the parsed uri or the error describing the first malformed component.
+     */
+    public ParseResult<Uri> tryParse(CharSequence sUri) {
+        if (sUri == null || sUri.length() == 0) {
+            return ParseResult.failure(new ParseError(UriComponent.URI, ParseError.Reason.EMPTY, 0));
+        }
+        //A lazy uri may outlive a mutable source, like a reused buffer. A compact uri copies it anyway.
+        UriOffsets offsets = scan(options.lazy && !options.compact ? sUri.toString() : sUri);
+        if (offsets == null) {
+            return ParseResult.failure(schemeError(sUri));
+        }
+        ParseError error = check(offsets);
+        if (error != null) {
+            return ParseResult.failure(error);
+        }
+        if (options.compact) {
+            if (!CompactUri.isCanonical(offsets)) {
+                //Compact uris work on their characters, so they keep the ones of the uri rendered from the components.
+                offsets = scan(build(offsets).toString());
+            }
+            return ParseResult.success(CompactUri.of(UriEncoding.getDefault(), offsets));
+        }
+        if (options.lazy) {
+            return ParseResult.<Uri>success(new LazyUri(UriEncoding.getDefault(), offsets));
         }
-        UriBuilder builder = Uri.newBuilder();
-        int currentParsedCharacterIndex = 0;
-        currentParsedCharacterIndex += parseScheme(builder, sUri, currentParsedCharacterIndex);
-        currentParsedCharacterIndex += parseAuthority(builder, sUri, currentParsedCharacterIndex);
-        currentParsedCharacterIndex += parsePath(builder, sUri, currentParsedCharacterIndex);
-        currentParsedCharacterIndex += parseQuery(builder, sUri, currentParsedCharacterIndex);
-        parseFragment(builder, sUri, currentParsedCharacterIndex);
-        return builder.build();
+        return ParseResult.success(build(offsets));
     }
 
     /**
-     * @return Number of character parsed in the input string
+     * @return the offsets of the components or null if the uri does not start with a scheme followed by its separator.
      */
-    private int parseScheme(UriBuilder builder, String sUri, int currentParsedCharacterIndex) {
-        int indexOfSchemeSeparator = sUri.indexOf(Uri.schemeSeparator, currentParsedCharacterIndex);
-        if (indexOfSchemeSeparator == -1) {
-            throw new MalformedSchemeException();
+    UriOffsets scan(CharSequence sUri) {
+        UriOffsets offsets = new UriOffsets(sUri);
+        int currentParsedCharacterIndex = scanScheme(offsets, 0);
+        if (currentParsedCharacterIndex == -1) {
+            return null;
         }
-        builder.withScheme(sUri.substring(currentParsedCharacterIndex, indexOfSchemeSeparator));
-        return indexOfSchemeSeparator + 1 - currentParsedCharacterIndex;
+        currentParsedCharacterIndex = scanAuthority(offsets, currentParsedCharacterIndex);
+        currentParsedCharacterIndex = scanPath(offsets, currentParsedCharacterIndex);
+        currentParsedCharacterIndex = scanQuery(offsets, currentParsedCharacterIndex);
+        scanFragment(offsets, currentParsedCharacterIndex);
+        return offsets;
     }
 
     /**
-     * @return Number of character parsed in the input string
+     * @return Index of the first character following the scheme separator or -1 if there is no separator
+     * after the scheme.
      */
-    private int parseAuthority(UriBuilder builder, String sUri, int currentParsedCharacterIndex) {
+    private int scanScheme(UriOffsets offsets, int currentParsedCharacterIndex) {
+        CharSequence sUri = offsets.source;
+        int index = CharacterSets.SCHEME.indexOfFirstCharacterNotInSet(sUri, currentParsedCharacterIndex, sUri.length());
+        //Any other character than the separator would make the scheme invalid.
+        if (index == -1 || sUri.charAt(index) != Uri.schemeSeparator) {
+            return -1;
+        }
+        offsets.schemeEnd = index;
+        return index + 1;
+    }
+
+    private ParseError schemeError(CharSequence sUri) {
+        int index = CharacterSets.SCHEME.indexOfFirstCharacterNotInSet(sUri, 0, sUri.length());
+        if (index == -1) {
+            return new ParseError(UriComponent.SCHEME, ParseError.Reason.MISSING_SEPARATOR, sUri.length());
+        }
+        return new ParseError(UriComponent.SCHEME, ParseError.Reason.INVALID_CHARACTER, index);
+    }
+
+    /**
+     * @return Index of the first character following the authority
+     */
+    private int scanAuthority(UriOffsets offsets, int currentParsedCharacterIndex) {
+        CharSequence sUri = offsets.source;
         //If the scheme separator is followed by // then we must parse an authority
-        if (currentParsedCharacterIndex + 2 <= sUri.length()) {
-            if (sUri.charAt(currentParsedCharacterIndex) == Uri.authorityPrefixCharacter
-                    && sUri.charAt(currentParsedCharacterIndex + 1) == Uri.authorityPrefixCharacter) {
-                int indexOfEndOfAuthority = sUri.indexOf(Path.pathSegmentSeparatorChar, currentParsedCharacterIndex + 2); //The end of authority may be the start of the path
-                if (indexOfEndOfAuthority == -1) {
-                    indexOfEndOfAuthority = sUri.indexOf(Uri.querySeparator, currentParsedCharacterIndex + 2); //Or the start of the query if we have an empty path
-                }
-                if (indexOfEndOfAuthority == -1) {
-                    indexOfEndOfAuthority = sUri.indexOf(Uri.fragmentSeparator, currentParsedCharacterIndex + 2); //Or the start of the fragment if we have an empty path and no query
-                }
-                if (indexOfEndOfAuthority == -1) {
-                    indexOfEndOfAuthority = sUri.length();
-                }
-                builder.withAuthority(sUri.substring(currentParsedCharacterIndex + 2, indexOfEndOfAuthority));
-                return indexOfEndOfAuthority - currentParsedCharacterIndex;
+        if (currentParsedCharacterIndex + 2 > sUri.length()
+                || sUri.charAt(currentParsedCharacterIndex) != Uri.authorityPrefixCharacter
+                || sUri.charAt(currentParsedCharacterIndex + 1) != Uri.authorityPrefixCharacter) {
+            return currentParsedCharacterIndex;
+        }
+        int index = currentParsedCharacterIndex + 2;
+        offsets.authorityStart = index;
+        offsets.hostStart = index;
+        boolean inIpLiteral = isIpLiteralPrefix(sUri, index);
+        for (; index < sUri.length(); index++) {
+            char character = sUri.charAt(index);
+            if (character == Path.pathSegmentSeparatorChar || character == Uri.querySeparator || character == Uri.fragmentSeparator) {
+                break;
+            }
+            if (character == Authority.userInformationHostSeparator && offsets.userInformationEnd == -1) {
+                //Everything we have seen so far was the user information
+                offsets.userInformationEnd = index;
+                offsets.hostStart = index + 1;
+                offsets.portStart = -1;
+                inIpLiteral = isIpLiteralPrefix(sUri, index + 1);
+            } else if (character == Authority.ipv6PostfixCharacter) {
+                inIpLiteral = false;
+            } else if (character == Authority.hostPortSeparator && offsets.portStart == -1 && !inIpLiteral) {
+                offsets.portStart = index + 1;
             }
         }
-        builder.withoutAuthority();
-        return 0;
+        offsets.authorityEnd = index;
+        offsets.hostEnd = (offsets.portStart != -1) ? offsets.portStart - 1 : index;
+        return index;
+    }
+
+    private boolean isIpLiteralPrefix(CharSequence sUri, int index) {
+        return index < sUri.length() && sUri.charAt(index) == Authority.ipv6PrefixCharacter;
     }
 
     /**
-     * @return Number of character parsed in the input string
+     * @return Index of the first character following the path
      */
-    private int parsePath(UriBuilder builder, String sUri, int currentParsedCharacterIndex) {
-        if (currentParsedCharacterIndex >= sUri.length() ||
-                sUri.charAt(currentParsedCharacterIndex) == Uri.querySeparator ||
-                sUri.charAt(currentParsedCharacterIndex) == Uri.fragmentSeparator) {
-            builder.withEmptyPath();
-            return 0;
+    private int scanPath(UriOffsets offsets, int currentParsedCharacterIndex) {
+        CharSequence sUri = offsets.source;
+        int index = currentParsedCharacterIndex;
+        offsets.pathStart = index;
+        if (index < sUri.length() && sUri.charAt(index) == Path.pathSegmentSeparatorChar) {
+            offsets.pathAbsolute = true;
+            index++;
         }
-        int indexOfEndOfPath = sUri.indexOf(Uri.querySeparator, currentParsedCharacterIndex);
-        if (indexOfEndOfPath == -1) { //No query
-            indexOfEndOfPath = sUri.indexOf(Uri.fragmentSeparator, currentParsedCharacterIndex);
+        int pathSegmentStart = index;
+        for (; index < sUri.length(); index++) {
+            char character = sUri.charAt(index);
+            if (character == Uri.querySeparator || character == Uri.fragmentSeparator) {
+                break;
+            }
+            if (character == Path.pathSegmentSeparatorChar) {
+                offsets.addPathSegment(pathSegmentStart, index);
+                pathSegmentStart = index + 1;
+            }
         }
-        if (indexOfEndOfPath == -1) { //No fragment
-            indexOfEndOfPath = sUri.length();
+        if (pathSegmentStart < index) { //Trailing path separator character does not start a new segment
+            offsets.addPathSegment(pathSegmentStart, index);
         }
-        builder.withPath(sUri.substring(currentParsedCharacterIndex, indexOfEndOfPath));
-        return indexOfEndOfPath - currentParsedCharacterIndex;
+        offsets.pathEnd = index;
+        return index;
     }
 
     /**
-     * @return Number of character parsed in the input string
+     * @return Index of the first character following the query
      */
-    int parseQuery(UriBuilder builder, String sUri, int currentParsedCharacterIndex) {
-        if (currentParsedCharacterIndex >= sUri.length() ||
-                sUri.charAt(currentParsedCharacterIndex) != Uri.querySeparator) {
-            builder.withoutQuery();
-            return 0;
+    private int scanQuery(UriOffsets offsets, int currentParsedCharacterIndex) {
+        CharSequence sUri = offsets.source;
+        if (currentParsedCharacterIndex >= sUri.length() || sUri.charAt(currentParsedCharacterIndex) != Uri.querySeparator) {
+            return currentParsedCharacterIndex;
         }
-        int indexOfFragmentSeparator = sUri.indexOf(Uri.fragmentSeparator, currentParsedCharacterIndex);
-        if (indexOfFragmentSeparator == -1) {
-            indexOfFragmentSeparator = sUri.length();
+        int index = currentParsedCharacterIndex + 1;
+        offsets.queryStart = index;
+        while (index < sUri.length() && sUri.charAt(index) != Uri.fragmentSeparator) {
+            index++;
         }
-        builder.withQuery(sUri.substring(currentParsedCharacterIndex + 1, indexOfFragmentSeparator));
-        return indexOfFragmentSeparator - currentParsedCharacterIndex;
+        offsets.queryEnd = index;
+        return index;
     }
 
-    private int parseFragment(UriBuilder builder, String sUri, int currentParsedCharacterIndex) {
-        if (currentParsedCharacterIndex >= sUri.length()) {
-            builder.withoutFragment();
-            return 0;
+    private void scanFragment(UriOffsets offsets, int currentParsedCharacterIndex) {
+        if (currentParsedCharacterIndex < offsets.source.length()) {
+            offsets.fragmentStart = currentParsedCharacterIndex + 1;
         }
-        builder.withFragment(sUri.substring(currentParsedCharacterIndex + 1));
-        return sUri.length() - currentParsedCharacterIndex;
     }
 
+    /**
+     * Check the components of the uri the same way the builders would do it, so {@link #build(UriOffsets)}
+     * does not need to validate them again.
+     *
+     * @return the error describing the first malformed component or null if the uri is valid.
+     */
+    ParseError check(UriOffsets offsets) {
+        CharSequence sUri = offsets.source;
+        UriValidator uriValidator = UriValidator.getInstance();
+        ParseError error = uriValidator.checkScheme(sUri, 0, offsets.schemeEnd);
+        if (error == null && offsets.hasAuthority()) {
+            error = checkAuthority(offsets);
+        }
+        PathValidator pathValidator = PathValidator.getInstance();
+        for (int i = 0; error == null && i < offsets.pathSegmentCount; i++) {
+            error = pathValidator.check(sUri, offsets.getPathSegmentStart(i), offsets.getPathSegmentEnd(i));
+        }
+        if (error == null && offsets.queryStart != -1) {
+            error = uriValidator.checkQuery(sUri, offsets.queryStart, offsets.queryEnd);
+        }
+        if (error == null && offsets.fragmentStart != -1) {
+            error = uriValidator.checkFragment(sUri, offsets.fragmentStart, sUri.length());
+        }
+        return error;
+    }
+
+    private ParseError checkAuthority(UriOffsets offsets) {
+        CharSequence sUri = offsets.source;
+        AuthorityValidator authorityValidator = AuthorityValidator.getInstance();
+        ParseError error = null;
+        if (offsets.userInformationEnd > offsets.authorityStart) { //Empty user information is ignored by the builder
+            error = authorityValidator.checkUserInformation(sUri, offsets.authorityStart, offsets.userInformationEnd);
+        }
+        if (error == null) {
+            error = authorityValidator.checkHost(sUri, offsets.hostStart, offsets.hostEnd);
+        }
+        if (error == null && offsets.portStart != -1) {
+            error = authorityValidator.checkPort(sUri, offsets.portStart, offsets.authorityEnd);
+        }
+        return error;
+    }
+
+    /**
+     * Build the uri from offsets checked by {@link #check(UriOffsets)}. Components are created directly from
+     * the checked characters, the builders would only validate them a second time.
+     */
+    Uri build(UriOffsets offsets) {
+        CharSequence sUri = offsets.source;
+        String scheme = sUri.subSequence(0, offsets.schemeEnd).toString();
+        Authority authority = offsets.hasAuthority() ? buildAuthority(offsets) : null;
+        String query = null;
+        if (offsets.queryStart != -1) {
+            query = sUri.subSequence(offsets.queryStart, offsets.queryEnd).toString();
+        }
+        String fragment = null;
+        if (offsets.fragmentStart != -1 && offsets.fragmentStart < sUri.length()) { //Empty fragment is ignored
+            fragment = sUri.subSequence(offsets.fragmentStart, sUri.length()).toString();
+        }
+        return ComponentAccess.getUriFactory().create(UriEncoding.getDefault(), scheme, authority, buildPath(offsets), query, fragment);
+    }
+
+    static Authority buildAuthority(UriOffsets offsets) {
+        CharSequence sUri = offsets.source;
+        String userInformation = null;
+        if (offsets.userInformationEnd > offsets.authorityStart) { //Empty user information is ignored
+            userInformation = sUri.subSequence(offsets.authorityStart, offsets.userInformationEnd).toString();
+        }
+        String host = sUri.subSequence(offsets.hostStart, offsets.hostEnd).toString();
+        Integer port = null;
+        if (offsets.portStart != -1) {
+            port = parsePort(sUri, offsets.portStart, offsets.authorityEnd);
+        }
+        return ComponentAccess.getAuthorityFactory().create(UriEncoding.getDefault(), userInformation, host, port);
+    }
+
+    /**
+     * Port must have been checked before, so it only contains digits.
+     */
+    static int parsePort(CharSequence sUri, int start, int end) {
+        int port = 0;
+        for (int i = start; i < end; i++) {
+            port = port * 10 + (sUri.charAt(i) - '0');
+        }
+        return port;
+    }
+
+    static Path buildPath(UriOffsets offsets) {
+        CharSequence sUri = offsets.source;
+        String[] pathSegments = new String[offsets.pathSegmentCount];
+        for (int i = 0; i < pathSegments.length; i++) {
+            pathSegments[i] = sUri.subSequence(offsets.getPathSegmentStart(i), offsets.getPathSegmentEnd(i)).toString();
+        }
+        //When authority is present, the path is always absolute.
+        return ComponentAccess.getPathFactory().create(UriEncoding.getDefault(), offsets.pathAbsolute || offsets.hasAuthority(), pathSegments);
+    }
 }
@@ -27,9 +27,23 @@ public class UriParserOptions {
      */
     public char pathSegmentSeparator;
 
+    /**
+     * If true, the parser only validates the uri and returns an uri that builds its components
+     * from the parsed string when they are accessed for the first time.
+     */
+    public boolean lazy;
+
+    /**
+     * If true, the parser returns an uri storing only its characters and the offsets of its components,
+     * components are built on each access and never kept. It takes precedence over {@link #lazy}.
+     */
+    public boolean compact;
+
     public static UriParserOptions getDefault() {
         UriParserOptions options = new UriParserOptions();
         options.pathSegmentSeparator = Path.pathSegmentSeparatorChar;
+        options.lazy = false;
+        options.compact = false;
         return options;
     }
 }
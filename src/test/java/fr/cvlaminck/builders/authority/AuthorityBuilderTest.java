@@ -47,10 +47,11 @@ public class AuthorityBuilderTest {
     public void testWithUserInformation() throws Exception {
         Authority authority = Authority.newBuilder()
                 .withEncodedHost("localhost")
-                .withUserInformation("user!")
+                .withUserInformation("user:pass word!@")
                 .build();
 
-        assertEquals("user%21", authority.getEncodedUserInformation());
+        assertEquals("user:pass%20word!%40", authority.getEncodedUserInformation());
+        assertEquals("user:pass word!@", authority.getUserInformation());
     }
 
     @Test
@@ -77,10 +78,11 @@ public class AuthorityBuilderTest {
     @Test
     public void testWithHost() throws Exception {
         Authority authority = Authority.newBuilder()
-                .withHost("localhost!")
+                .withHost("local host!:80")
                 .build();
 
-        assertEquals(authority.getEncodedHost(), "localhost%21");
+        assertEquals("local%20host!%3A80", authority.getEncodedHost());
+        assertEquals("local host!:80", authority.getHost());
     }
 
     @Test
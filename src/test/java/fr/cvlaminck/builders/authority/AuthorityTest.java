@@ -2,11 +2,14 @@ package fr.cvlaminck.builders.authority;
 
 import fr.cvlaminck.builders.exception.MalformedAuthorityException;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class AuthorityTest {
 
@@ -105,4 +108,49 @@ public class AuthorityTest {
         authority = new Authority(UriEncoding.getDefault(), null, "localhost", 4242);
         assertEquals("localhost:4242", authority.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseFromCharArray() throws Exception {
+        char[] characters = "//user@localhost:8080/".toCharArray();
+        Authority authority = Authority.parse(characters, 2, 19);
+        assertEquals("user", authority.getEncodedUserInformation());
+        assertEquals("localhost", authority.getEncodedHost());
+        assertEquals(Integer.valueOf(8080), authority.getPort());
+    }
+
+    @Test
+    public void testTryParse() throws Exception {
+        Authority authority = Authority.tryParse("user@localhost:8080").getValue();
+        assertEquals("user", authority.getEncodedUserInformation());
+        assertEquals("localhost", authority.getEncodedHost());
+        assertEquals(Integer.valueOf(8080), authority.getPort());
+
+        ParseError error = Authority.tryParse("user@local host").getError();
+        assertEquals(UriComponent.REGISTERED_NAME, error.getComponent());
+        assertEquals(ParseError.Reason.INVALID_CHARACTER, error.getReason());
+        assertEquals(10, error.getOffset());
+
+        error = Authority.tryParse("localhost:+80").getError();
+        assertEquals(UriComponent.PORT, error.getComponent());
+        assertEquals(10, error.getOffset());
+    }
+
+    @Test
+    public void testToStringIsComputedOnce() throws Exception {
+        Authority authority = Authority.parse("user@localhost:8080");
+        assertSame(authority.toString(), authority.toString());
+        assertEquals(authority.hashCode(), Authority.parse("user@localhost:8080").hashCode());
+    }
+
+    @Test
+    public void testDecodedValuesAreComputedOnce() throws Exception {
+        Authority authority = Authority.parse("us%20er@local%2Dhost");
+        assertEquals("local-host", authority.getHost());
+        assertSame(authority.getHost(), authority.getHost());
+        assertSame(authority.getUserInformation(), authority.getUserInformation());
+        assertNull(Authority.parse("localhost").getUserInformation());
+
+        Authority notEncoded = Authority.parse("localhost");
+        assertSame(notEncoded.getEncodedHost(), notEncoded.getHost());
+    }
+}
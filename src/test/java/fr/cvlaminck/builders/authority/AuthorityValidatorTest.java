@@ -63,6 +63,21 @@ public class AuthorityValidatorTest {
         new AuthorityValidator().validateIpV4Address("256.255.0.0");
     }
 
+    @Test(expected = MalformedIpV4AddressException.class)
+    public void testValidateIpV4AddressWithMissingPart() throws Exception {
+        new AuthorityValidator().validateIpV4Address("127.0..1");
+    }
+
+    @Test(expected = MalformedIpV4AddressException.class)
+    public void testValidateIpV4AddressWithTooManyParts() throws Exception {
+        new AuthorityValidator().validateIpV4Address("127.0.0.1.1");
+    }
+
+    @Test
+    public void testValidateHostWithInvalidIpV4AddressFallsBackToRegName() throws Exception {
+        new AuthorityValidator().validateHost("256.0.0.1");
+    }
+
     @Test
     public void testValidateRegisteredName() throws Exception {
         AuthorityValidator validator = new AuthorityValidator();
@@ -0,0 +1,28 @@
+package fr.cvlaminck.builders.exception;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MalformedUriExceptionTest {
+
+    @After
+    public void tearDown() throws Exception {
+        MalformedUriException.setStackTraceEnabled(true);
+    }
+
+    @Test
+    public void testStackTraceEnabledByDefault() throws Exception {
+        assertTrue(MalformedUriException.isStackTraceEnabled());
+        assertTrue(new MalformedPathSegmentException().getStackTrace().length > 0);
+    }
+
+    @Test
+    public void testStackTraceDisabled() throws Exception {
+        MalformedUriException.setStackTraceEnabled(false);
+        MalformedQueryParametersException exception = new MalformedQueryParametersException();
+        assertEquals(0, exception.getStackTrace().length);
+        assertNotNull(exception.getMessage());
+    }
+}
@@ -10,11 +10,18 @@ public class PathBuilderTest {
     @Test
     public void testAppendPathSegment() throws Exception {
         Path path = Path.newBuilder()
-                .appendPathSegment("test!")
+                .appendPathSegment("test !+/?")
                 .build();
 
         assertEquals(1, path.getPathSegmentCount());
-        assertEquals("test%21", path.getEncodedPathSegment(0));
+        assertEquals("test%20!%2B%2F%3F", path.getEncodedPathSegment(0));
+        assertEquals("test !+/?", path.getPathSegment(0));
+    }
+
+    @Test(expected = MalformedPathSegmentException.class)
+    public void testAppendPathSegmentThrowsMalformedPathSegmentExceptionIfEmpty() throws Exception {
+        Path.newBuilder()
+                .appendPathSegment("");
     }
 
     @Test
@@ -134,4 +141,30 @@ public class PathBuilderTest {
         assertEquals(1, path.getPathSegmentCount());
         assertEquals("test", path.getPathSegment(0));
     }
+
+    @Test
+    public void testAppendNumericPathSegment() throws Exception {
+        Path path = Path.newBuilder()
+                .appendEncodedPathSegment("users")
+                .appendPathSegment(42L)
+                .appendPathSegment(-7)
+                .build();
+
+        assertEquals(3, path.getPathSegmentCount());
+        assertEquals("42", path.getPathSegment(1));
+        assertEquals("-7", path.getEncodedPathSegment(2));
+    }
+
+    @Test
+    public void testAppendPathSegmentToken() throws Exception {
+        PathSegment accounts = PathSegment.of("my accounts");
+        Path path = Path.newBuilder()
+                .appendPathSegment(accounts)
+                .appendPathSegment(accounts)
+                .build();
+
+        assertEquals(2, path.getPathSegmentCount());
+        assertEquals("my%20accounts", path.getEncodedPathSegment(1));
+        assertEquals("my accounts", path.getPathSegment(1));
+    }
 }
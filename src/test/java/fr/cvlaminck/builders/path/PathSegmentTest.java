@@ -0,0 +1,57 @@
+package fr.cvlaminck.builders.path;
+
+import fr.cvlaminck.builders.exception.MalformedPathSegmentException;
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+
+public class PathSegmentTest {
+
+    @Test
+    public void testOfEscapesSeparator() throws Exception {
+        PathSegment segment = PathSegment.of("a b/c");
+        Path path = Path.newBuilder()
+                .appendPathSegment(segment)
+                .build();
+
+        assertEquals("a%20b%2Fc", segment.getEncodedSegment());
+        assertEquals(1, path.getPathSegmentCount());
+        assertEquals("a b/c", path.getPathSegment(0));
+    }
+
+    @Test(expected = MalformedPathSegmentException.class)
+    public void testOfEncodedThrowsMalformedPathSegmentExceptionIfItContainsSeparator() throws Exception {
+        PathSegment.ofEncoded("a/b");
+    }
+
+    @Test(expected = MalformedPathSegmentException.class)
+    public void testOfThrowsMalformedPathSegmentExceptionIfEmpty() throws Exception {
+        PathSegment.of("");
+    }
+
+    @Test
+    public void testAppendSegmentsBetweenOtherSegments() throws Exception {
+        Path path = Path.newBuilder()
+                .appendPathSegment(PathSegment.of("users"))
+                .appendPathSegment(42)
+                .appendPathSegment("a b")
+                .appendPathSegment(PathSegment.ofEncoded("c%20d"))
+                .build();
+
+        assertEquals("/users/42/a%20b/c%20d", path.toString());
+    }
+
+    @Test
+    public void testSegmentKeepsItsEncoding() throws Exception {
+        PathSegment segment = PathSegment.of("\u00e9", UriEncoding.forCharset(Charset.forName("ISO-8859-1")));
+        Path path = Path.newBuilder()
+                .appendPathSegment(segment)
+                .build();
+
+        assertEquals("%E9", path.getEncodedPathSegment(0));
+        assertEquals(PathSegment.ofEncoded("%E9"), segment);
+    }
+}
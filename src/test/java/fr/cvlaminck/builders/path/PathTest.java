@@ -2,6 +2,8 @@ package fr.cvlaminck.builders.path;
 
 import fr.cvlaminck.builders.exception.MalformedPathException;
 import fr.cvlaminck.builders.exception.MalformedPathSegmentException;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -166,6 +168,22 @@ public class PathTest {
         assertEquals("/test test", path.toString(options));
     }
 
+    @Test
+    public void testAppendTo() throws Exception {
+        Path path = Path.parse("/test/test%21");
+
+        StringBuilder sb = new StringBuilder("http://localhost");
+        path.appendTo(sb);
+        assertEquals("http://localhost/test/test%21", sb.toString());
+
+        Path.FormattingOptions options = new Path.FormattingOptions();
+        options.nonEncoded = true;
+        options.withoutRoot = true;
+        sb = new StringBuilder();
+        path.appendTo(sb, options);
+        assertEquals("test/test!", sb.toString());
+    }
+
     @Test
     public void testEquals() throws Exception {
         PathBuilder builder = Path.newBuilder()
@@ -177,4 +195,41 @@ public class PathTest {
         assertFalse(Path.parse("/test2").equals(builder.build()));
         assertFalse(Path.parse("test2").equals(builder.build()));
     }
+
+    @Test
+    public void testParseFromByteArray() throws Exception {
+        byte[] bytes = "/test/a%20b?query".getBytes("US-ASCII");
+        Path path = Path.parse(bytes, 0, 11);
+        assertTrue(path.isAbsolute());
+        assertEquals(2, path.getPathSegmentCount());
+        assertEquals("a b", path.getPathSegment(1));
+    }
+
+    @Test
+    public void testTryParse() throws Exception {
+        assertEquals("/a/b", Path.tryParse("/a/b").getValue().toString());
+
+        ParseError error = Path.tryParse("/a//b").getError();
+        assertEquals(UriComponent.PATH_SEGMENT, error.getComponent());
+        assertEquals(ParseError.Reason.EMPTY, error.getReason());
+        assertEquals(3, error.getOffset());
+
+        assertEquals(UriComponent.PATH, Path.tryParse(null).getError().getComponent());
+    }
+
+    @Test
+    public void testToStringIsComputedOnce() throws Exception {
+        Path path = Path.parse("/a/b");
+        assertSame(path.toString(), path.toString());
+        assertSame(path.toString(), path.toString(Path.FormattingOptions.defaultOptions()));
+        assertEquals(path.hashCode(), Path.parse("/a/b").hashCode());
+    }
+
+    @Test
+    public void testGetPathSegmentIsDecodedOnce() throws Exception {
+        Path path = Path.parse("/a%20b/c");
+        assertEquals("a b", path.getPathSegment(0));
+        assertSame(path.getPathSegment(0), path.getPathSegment(0));
+        assertSame(path.getEncodedPathSegment(1), path.getPathSegment(1));
+    }
 }
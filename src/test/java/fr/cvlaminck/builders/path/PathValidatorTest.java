@@ -32,4 +32,11 @@ public class PathValidatorTest {
         validator.validate("Hello_World#");
     }
 
+    @Test(expected = MalformedPathSegmentException.class)
+    public void testValidateWithTruncatedPctEncodedCharacter() {
+        PathValidator validator = new PathValidator();
+
+        validator.validate("Hello%2");
+    }
+
 }
\ No newline at end of file
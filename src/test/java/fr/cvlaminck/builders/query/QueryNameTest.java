@@ -0,0 +1,59 @@
+package fr.cvlaminck.builders.query;
+
+import fr.cvlaminck.builders.exception.MalformedQueryException;
+import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class QueryNameTest {
+
+    @Test
+    public void testOfEscapesDelimiters() throws Exception {
+        QueryName name = QueryName.of("a=b&c d");
+        QueryParameters queryParameters = QueryParameters.newBuilder()
+                .appendQueryParameter(name, "e")
+                .build();
+
+        assertEquals("a%3Db%26c+d", name.getEncodedName());
+        assertEquals("a%3Db%26c+d=e", queryParameters.toString());
+        assertEquals("e", queryParameters.getValue("a=b&c d"));
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void testOfEncodedThrowsMalformedQueryExceptionIfItContainsEqualSign() throws Exception {
+        QueryName.ofEncoded("a=b");
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void testOfThrowsMalformedQueryExceptionIfEmpty() throws Exception {
+        QueryName.of("");
+    }
+
+    @Test
+    public void testValuesOfSameNameAreGrouped() throws Exception {
+        QueryName name = QueryName.of("id");
+        QueryParameters queryParameters = QueryParameters.newBuilder()
+                .appendQueryParameter(name, "a")
+                .appendQueryParameter("other", "b")
+                .appendQueryParameter(name, 2)
+                .appendQueryParameter(name, true)
+                .build();
+
+        assertEquals(Arrays.asList("a", "2", "true"), queryParameters.getQueryParameter("id").getValues());
+    }
+
+    @Test
+    public void testNameKeepsItsEncoding() throws Exception {
+        QueryName name = QueryName.of("\u00e9", UriEncoding.forCharset(Charset.forName("ISO-8859-1")));
+        QueryParameters queryParameters = QueryParameters.newBuilder()
+                .appendQueryParameter(name, 1L)
+                .build();
+
+        assertEquals("%E9=1", queryParameters.toString());
+        assertEquals(QueryName.ofEncoded("%E9"), name);
+    }
+}
@@ -0,0 +1,123 @@
+package fr.cvlaminck.builders.query;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class QueryParameterMultimapTest {
+
+    @Test
+    public void testGetValuesKeepsInsertionOrder() throws Exception {
+        QueryParameterMultimap multimap = new QueryParameterMultimap();
+        multimap.add("b", "1");
+        multimap.add("a", "2");
+        multimap.add("b", "3");
+
+        assertEquals(3, multimap.size());
+        assertEquals(2, multimap.nameCount());
+        assertEquals(Arrays.asList("1", "3"), multimap.getValues("b"));
+        assertEquals(Arrays.asList("2"), multimap.getValues("a"));
+        assertNull(multimap.getValues("c"));
+        assertTrue(multimap.isFirstPositionOfName(0));
+        assertFalse(multimap.isFirstPositionOfName(2));
+    }
+
+    @Test
+    public void testGetValuesAboveHashIndexThreshold() throws Exception {
+        QueryParameterMultimap multimap = new QueryParameterMultimap();
+        for (int i = 0; i < QueryParameterMultimap.HASH_INDEX_THRESHOLD * 4; i++) {
+            multimap.add("name" + (i % 5), Integer.toString(i));
+        }
+
+        assertEquals(5, multimap.nameCount());
+        assertEquals(Arrays.asList("3", "8", "13", "18", "23", "28"), multimap.getValues("name3"));
+        assertEquals(3, multimap.firstPositionOf("name3"));
+        assertTrue(multimap.isFirstPositionOfName(4));
+        assertFalse(multimap.isFirstPositionOfName(9));
+    }
+
+    @Test
+    public void testReplaceAllKeepsPosition() throws Exception {
+        QueryParameterMultimap multimap = new QueryParameterMultimap();
+        multimap.add("a", "1");
+        multimap.add("b", "2");
+        multimap.add("a", "3");
+        multimap.add("c", "4");
+        multimap.replaceAll("a", new String[]{"5", "6", "7"});
+
+        assertEquals(5, multimap.size());
+        assertEquals("a", multimap.nameAt(0));
+        assertEquals("7", multimap.valueAt(2));
+        assertEquals("b", multimap.nameAt(3));
+        assertEquals(Arrays.asList("5", "6", "7"), multimap.getValues("a"));
+    }
+
+    @Test
+    public void testRemoveAll() throws Exception {
+        QueryParameterMultimap multimap = new QueryParameterMultimap();
+        for (int i = 0; i < QueryParameterMultimap.HASH_INDEX_THRESHOLD * 2; i++) {
+            multimap.add(i % 2 == 0 ? "even" : "odd", Integer.toString(i));
+        }
+        multimap.removeAll("even");
+
+        assertEquals(QueryParameterMultimap.HASH_INDEX_THRESHOLD, multimap.size());
+        assertEquals(1, multimap.nameCount());
+        assertNull(multimap.getValues("even"));
+        assertEquals(-1, multimap.firstPositionOf("even"));
+    }
+
+    @Test
+    public void testCopyIsIndependent() throws Exception {
+        QueryParameterMultimap multimap = new QueryParameterMultimap();
+        multimap.add("a", "1");
+        QueryParameterMultimap copy = multimap.copy();
+        multimap.add("a", "2");
+
+        assertEquals(Arrays.asList("1"), copy.getValues("a"));
+        assertNotEquals(multimap, copy);
+        copy.add("a", "2");
+        assertEquals(multimap, copy);
+        assertEquals(multimap.hashCode(), copy.hashCode());
+    }
+
+    @Test
+    public void testNumbersEqualTheirDigits() throws Exception {
+        QueryParameterMultimap numbers = new QueryParameterMultimap();
+        numbers.add("a", 42L);
+        numbers.add("b", Long.MIN_VALUE);
+        numbers.add("c", 0L);
+        QueryParameterMultimap strings = new QueryParameterMultimap();
+        strings.add("a", "42");
+        strings.add("b", Long.toString(Long.MIN_VALUE));
+        strings.add("c", "0");
+
+        assertEquals(strings, numbers);
+        assertEquals(numbers, strings);
+        assertEquals(strings.hashCode(), numbers.hashCode());
+        for (int i = 0; i < numbers.size(); i++) {
+            assertEquals(strings.valueAt(i), numbers.valueAt(i));
+            assertEquals(strings.valueAt(i).length(), numbers.valueLength(i));
+            StringBuilder sb = new StringBuilder();
+            numbers.appendValueTo(i, sb);
+            assertEquals(strings.valueAt(i), sb.toString());
+        }
+    }
+
+    @Test
+    public void testNumbersAreKeptByCopyAndReplaceAll() throws Exception {
+        QueryParameterMultimap multimap = new QueryParameterMultimap();
+        for (int i = 0; i < QueryParameterMultimap.HASH_INDEX_THRESHOLD * 2; i++) {
+            multimap.add(i % 2 == 0 ? "even" : "odd", (long) i);
+        }
+        multimap.replaceAll("even", new String[]{"x"});
+        QueryParameterMultimap copy = multimap.copy();
+        multimap.add("odd", 99L);
+
+        assertEquals("x", copy.valueAt(0));
+        assertEquals("15", copy.valueAt(copy.size() - 1));
+        assertEquals(Arrays.asList("1", "3", "5", "7", "9", "11", "13", "15"), copy.getValues("odd"));
+        assertEquals("99", multimap.valueAt(multimap.size() - 1));
+    }
+}
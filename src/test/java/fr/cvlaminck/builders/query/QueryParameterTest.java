@@ -9,7 +9,10 @@ import java.util.Collection;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class QueryParameterTest {
 
@@ -107,4 +110,59 @@ public class QueryParameterTest {
 
         assertEquals("NAME=test&NAME=test2", queryParameter.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDecodedValuesAreComputedOnce() throws Exception {
+        QueryParameter queryParameter = QueryParameters.parse("a%20b=c+d&a%20b=e").getQueryParameterWithEncodedName("a%20b");
+        assertEquals("a b", queryParameter.getName());
+        assertSame(queryParameter.getName(), queryParameter.getName());
+        assertEquals("c d", queryParameter.getValue());
+        assertSame(queryParameter.getValue(), queryParameter.getValue());
+        assertSame(queryParameter.getValue(), queryParameter.getValues().get(0));
+        assertSame(queryParameter.getValues(), queryParameter.getValues());
+        assertSame(queryParameter.getEncodedValues().get(1), queryParameter.getValues().get(1));
+    }
+
+    @Test
+    public void testTypedValues() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("limit=50&offset=-9223372036854775808&ratio=0.25&debug=TRUE&limit=10");
+        assertEquals(50, queryParameters.getQueryParameter("limit").getIntValue());
+        assertEquals(Long.MIN_VALUE, queryParameters.getQueryParameter("offset").getLongValue());
+        assertEquals(0.25, queryParameters.getQueryParameter("ratio").getDoubleValue(), 0);
+        assertTrue(queryParameters.getQueryParameter("debug").getBooleanValue());
+    }
+
+    @Test
+    public void testTypedValuesAreDecoded() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("n=%2D42&b=%66alse&d=1%2E5");
+        assertEquals(-42, queryParameters.getQueryParameter("n").getIntValue());
+        assertFalse(queryParameters.getQueryParameter("b").getBooleanValue());
+        assertEquals(1.5, queryParameters.getQueryParameter("d").getDoubleValue(), 0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testGetIntValueThrowsNumberFormatExceptionOnOverflow() throws Exception {
+        QueryParameters.parse("n=2147483648").getQueryParameter("n").getIntValue();
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testGetLongValueThrowsNumberFormatExceptionIfNotANumber() throws Exception {
+        QueryParameters.parse("n=12a").getQueryParameter("n").getLongValue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetBooleanValueThrowsIllegalArgumentException() throws Exception {
+        QueryParameters.parse("b=yes").getQueryParameter("b").getBooleanValue();
+    }
+
+    @Test
+    public void testTypedValuesOrElse() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("n=2147483648&m=-&s=+1&b=1&d=x");
+        assertEquals(7, queryParameters.getQueryParameter("n").getIntValueOrElse(7));
+        assertEquals(2147483648L, queryParameters.getQueryParameter("n").getLongValueOrElse(7));
+        assertEquals(7, queryParameters.getQueryParameter("m").getLongValueOrElse(7));
+        assertEquals(7, queryParameters.getQueryParameter("s").getIntValueOrElse(7));
+        assertTrue(queryParameters.getQueryParameter("b").getBooleanValueOrElse(true));
+        assertEquals(0.5, queryParameters.getQueryParameter("d").getDoubleValueOrElse(0.5), 0);
+    }
+}
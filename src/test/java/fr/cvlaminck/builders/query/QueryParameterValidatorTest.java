@@ -0,0 +1,57 @@
+package fr.cvlaminck.builders.query;
+
+import fr.cvlaminck.builders.exception.MalformedQueryParametersException;
+import org.junit.Test;
+
+public class QueryParameterValidatorTest {
+
+    @Test
+    public void testValidateQueryParameterName() throws Exception {
+        QueryParameterValidator validator = new QueryParameterValidator();
+
+        validator.validateQueryParameterName("utm_source");
+        validator.validateQueryParameterName("a&b%20c");
+    }
+
+    @Test(expected = MalformedQueryParametersException.class)
+    public void testValidateQueryParameterNameWithEqualSign() throws Exception {
+        new QueryParameterValidator().validateQueryParameterName("a=b");
+    }
+
+    @Test
+    public void testValidateQueryParameterValue() throws Exception {
+        QueryParameterValidator validator = new QueryParameterValidator();
+
+        validator.validateQueryParameterValue("");
+        validator.validateQueryParameterValue("a=b%20c");
+    }
+
+    @Test(expected = MalformedQueryParametersException.class)
+    public void testValidateQueryParameterValueWithAmpersand() throws Exception {
+        new QueryParameterValidator().validateQueryParameterValue("a&b");
+    }
+
+    @Test
+    public void testValidateQueryParameterValueWith1MBValue() throws Exception {
+        new QueryParameterValidator().validateQueryParameterValue(newBase64Value(1 << 20));
+    }
+
+    @Test
+    public void testValidateQueryParameterValueWith16MBValue() throws Exception {
+        new QueryParameterValidator().validateQueryParameterValue(newBase64Value(16 << 20));
+    }
+
+    @Test(expected = MalformedQueryParametersException.class)
+    public void testValidateQueryParameterValueWith16MBMalformedValue() throws Exception {
+        new QueryParameterValidator().validateQueryParameterValue(newBase64Value(16 << 20) + "#");
+    }
+
+    private String newBase64Value(int length) {
+        String pattern = "QUJDREVGR0hJSktMTU5PUA%2B%2F==";
+        StringBuilder sb = new StringBuilder(length + pattern.length());
+        while (sb.length() < length) {
+            sb.append(pattern);
+        }
+        return sb.toString();
+    }
+}
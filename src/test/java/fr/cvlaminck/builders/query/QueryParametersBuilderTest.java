@@ -69,6 +69,18 @@ public class QueryParametersBuilderTest {
         assertEquals(encodedText, queryParameters.getQueryParameter(text).getEncodedValue());
     }
 
+    @Test
+    public void testAppendQueryParameterOnlyEncodesReservedCharacters() throws Exception {
+        QueryParameters queryParameters = QueryParameters.newBuilder()
+                .appendQueryParameter("a=b&c", "/path?x=1&y=2 3+4")
+                .build();
+
+        QueryParameter queryParameter = queryParameters.getQueryParameter("a=b&c");
+        assertEquals("a%3Db%26c", queryParameter.getEncodedName());
+        assertEquals("/path?x=1%26y=2+3%2B4", queryParameter.getEncodedValue());
+        assertEquals("/path?x=1&y=2 3+4", queryParameter.getValue());
+    }
+
     @Test
     public void testRemoveQueryParameterWithEncodedName() throws Exception {
         QueryParameters queryParameters = QueryParameters.newBuilder()
@@ -93,6 +105,17 @@ public class QueryParametersBuilderTest {
         assertEquals(0, queryParameters.getQueryParameterCount());
     }
 
+    @Test
+    public void testRemoveQueryParameterMatchesDecodedNames() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("a%3Ab=1&c=2&a:b=3&d+e=4&d%20e=5")
+                .buildUpon()
+                .removeQueryParameter("a:b")
+                .removeQueryParameter("d e")
+                .build();
+
+        assertEquals("c=2", queryParameters.toString());
+    }
+
     @Test
     public void testReplaceEncodedQueryParameters() throws Exception {
         QueryParameters queryParameters = QueryParameters.newBuilder()
@@ -149,4 +172,54 @@ public class QueryParametersBuilderTest {
         assertEquals(1, queryParameters.getQueryParameterCount());
         assertEquals(encodedText, queryParameters.getQueryParameter(text).getEncodedValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAppendPrimitiveQueryParameters() throws Exception {
+        QueryParameters queryParameters = QueryParameters.newBuilder()
+                .appendQueryParameter("since", 1500000000000L)
+                .appendQueryParameter("limit", 50)
+                .appendQueryParameter("limit", -1)
+                .appendQueryParameter("a b", true)
+                .build();
+
+        assertEquals("since=1500000000000&limit=50&limit=-1&a+b=true", queryParameters.toString());
+        assertEquals(50, queryParameters.getIntValue("limit"));
+        assertTrue(queryParameters.getBooleanValue("a b"));
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void testAppendPrimitiveQueryParameterThrowsMalformedQueryExceptionIfNameIsEmpty() throws Exception {
+        QueryParameters.newBuilder().appendQueryParameter("", 1);
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void testAppendPrimitiveQueryParameterThrowsMalformedQueryExceptionIfNameIsNull() throws Exception {
+        QueryParameters.newBuilder().appendQueryParameter((String) null, 1);
+    }
+
+    @Test
+    public void testAppendPrimitiveQueryParametersWithSameName() throws Exception {
+        String name = "a b";
+        QueryParametersBuilder builder = QueryParameters.newBuilder();
+        for (int i = 0; i < 3; i++) {
+            builder.appendQueryParameter(name, i);
+        }
+        builder.appendQueryParameter("c", Long.MIN_VALUE);
+
+        assertEquals("a+b=0&a+b=1&a+b=2&c=-9223372036854775808", builder.build().toString());
+    }
+
+    @Test
+    public void testAppendQueryNameToken() throws Exception {
+        QueryName token = QueryName.of("access_token");
+        QueryName flag = QueryName.of("a b");
+        QueryParameters queryParameters = QueryParameters.newBuilder()
+                .appendQueryParameter(token, "x y", "z")
+                .appendQueryParameter(flag, true)
+                .appendQueryParameter(QueryName.ofEncoded("n"), 42L)
+                .appendQueryParameter(QueryName.ofEncoded("i"), -7)
+                .build();
+
+        assertEquals("access_token=x+y&access_token=z&a+b=true&n=42&i=-7", queryParameters.toString());
+    }
+}
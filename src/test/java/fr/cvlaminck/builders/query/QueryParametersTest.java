@@ -1,6 +1,10 @@
 package fr.cvlaminck.builders.query;
 
+import fr.cvlaminck.builders.exception.MalformedQueryParametersException;
 import fr.cvlaminck.builders.uri.encoding.UriEncoding;
+import fr.cvlaminck.builders.uri.parser.ParseError;
+import fr.cvlaminck.builders.uri.parser.ParseResult;
+import fr.cvlaminck.builders.uri.parser.UriComponent;
 import org.junit.Test;
 
 import java.util.*;
@@ -28,14 +32,20 @@ public class QueryParametersTest {
         assertEquals(Arrays.asList("test.0", "test.1", "test.2"), queryParameters.getQueryParameter("test").getEncodedValues());
     }
 
+    /**
+     * Pairs are given as name, value, name, value...
+     */
+    private static QueryParameters newQueryParameters(String... encodedNamesAndValues) {
+        QueryParameterMultimap multimap = new QueryParameterMultimap();
+        for (int i = 0; i < encodedNamesAndValues.length; i += 2) {
+            multimap.add(encodedNamesAndValues[i], encodedNamesAndValues[i + 1]);
+        }
+        return new QueryParameters(UriEncoding.getDefault(), QueryParameters.queryParameterSeparatorChar, multimap);
+    }
+
     @Test
     public void testBuildUpon() throws Exception {
-        Map<String, List<String>> rawParameters = new HashMap<String, List<String>>();
-        rawParameters.put("test", Arrays.asList("test.0", "test.1"));
-        rawParameters.put("test2", Arrays.asList("test2.0"));
-        QueryParameters queryParameters = new QueryParameters(UriEncoding.getDefault(),
-                QueryParameters.queryParameterSeparatorChar,
-                rawParameters);
+        QueryParameters queryParameters = newQueryParameters("test", "test.0", "test", "test.1", "test2", "test2.0");
 
         assertNotSame(queryParameters, queryParameters.buildUpon().build());
         assertEquals(queryParameters, queryParameters.buildUpon().build());
@@ -43,24 +53,14 @@ public class QueryParametersTest {
 
     @Test
     public void testGetQueryParameterCount() throws Exception {
-        Map<String, List<String>> rawParameters = new HashMap<String, List<String>>();
-        rawParameters.put("test", Arrays.asList("test.0", "test.1"));
-        rawParameters.put("test2", Arrays.asList("test2.0"));
-        QueryParameters queryParameters = new QueryParameters(UriEncoding.getDefault(),
-                QueryParameters.queryParameterSeparatorChar,
-                rawParameters);
+        QueryParameters queryParameters = newQueryParameters("test", "test.0", "test", "test.1", "test2", "test2.0");
 
         assertEquals(2, queryParameters.getQueryParameterCount());
     }
 
     @Test
     public void testGetQueryParameters() throws Exception {
-        Map<String, List<String>> rawParameters = new HashMap<String, List<String>>();
-        rawParameters.put("test", Arrays.asList("test.0", "test.1"));
-        rawParameters.put("test2", Arrays.asList("test2.0"));
-        QueryParameters queryParameters = new QueryParameters(UriEncoding.getDefault(),
-                QueryParameters.queryParameterSeparatorChar,
-                rawParameters);
+        QueryParameters queryParameters = newQueryParameters("test", "test.0", "test", "test.1", "test2", "test2.0");
 
         Set<QueryParameter> params = queryParameters.getQueryParameters();
         Iterator<QueryParameter> it = params.iterator();
@@ -72,26 +72,274 @@ public class QueryParametersTest {
 
     @Test
     public void testGetQueryParameterWithEncodedName() throws Exception {
-        Map<String, List<String>> rawParameters = new HashMap<String, List<String>>();
-        rawParameters.put("test", Arrays.asList("test.0", "test.1"));
-        QueryParameters queryParameters = new QueryParameters(UriEncoding.getDefault(),
-                QueryParameters.queryParameterSeparatorChar,
-                rawParameters);
+        QueryParameters queryParameters = newQueryParameters("test", "test.0", "test", "test.1");
 
         assertEquals("test", queryParameters.getQueryParameter("test").getEncodedName());
-        assertEquals(rawParameters.get("test"), queryParameters.getQueryParameter("test").getEncodedValues());
+        assertEquals(Arrays.asList("test.0", "test.1"), queryParameters.getQueryParameter("test").getEncodedValues());
     }
 
     @Test
     public void testToString() throws Exception {
-        Map<String, List<String>> rawParameters = new HashMap<String, List<String>>();
-        rawParameters.put("test", Arrays.asList("test.0", "test.1"));
-        rawParameters.put("test2", Arrays.asList("test2.0"));
-        QueryParameters queryParameters = new QueryParameters(
-                UriEncoding.getDefault(),
-                QueryParameters.queryParameterSeparatorChar,
-                rawParameters);
+        QueryParameters queryParameters = newQueryParameters("test2", "test2.0", "test", "test.0", "test", "test.1");
 
         assertEquals("test2=test2.0&test=test.0&test=test.1", queryParameters.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseWithTrailingSeparator() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("test=test.0&");
+        assertEquals(1, queryParameters.getQueryParameterCount());
+        assertEquals("test.0", queryParameters.getQueryParameter("test").getEncodedValue());
+    }
+
+    @Test(expected = MalformedQueryParametersException.class)
+    public void testParseWithParameterWithoutValue() throws Exception {
+        QueryParameters.parse("test&test1=test1.0");
+    }
+
+    @Test
+    public void testParseFromByteArray() throws Exception {
+        byte[] bytes = "?test=test.0&test1=test%201#fragment".getBytes("US-ASCII");
+        QueryParameters queryParameters = QueryParameters.parse(bytes, 1, 26);
+        assertEquals("test.0", queryParameters.getQueryParameter("test").getValue());
+        assertEquals("test 1", queryParameters.getQueryParameter("test1").getValue());
+    }
+
+    @Test
+    public void testTryParse() throws Exception {
+        ParseResult<QueryParameters> result = QueryParameters.tryParse("a=1&b=2");
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getValue().getQueryParameterCount());
+    }
+
+    @Test
+    public void testTryParseWithParameterWithoutValue() throws Exception {
+        ParseError error = QueryParameters.tryParse("a=1&b").getError();
+        assertEquals(UriComponent.QUERY_PARAMETERS, error.getComponent());
+        assertEquals(ParseError.Reason.MISSING_SEPARATOR, error.getReason());
+        assertEquals(5, error.getOffset());
+    }
+
+    @Test
+    public void testTryParseWithEmptyName() throws Exception {
+        ParseError error = QueryParameters.tryParse("a=1&=2").getError();
+        assertEquals(ParseError.Reason.EMPTY, error.getReason());
+        assertEquals(4, error.getOffset());
+    }
+
+    @Test
+    public void testToStringIsComputedOnce() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("a=1&b=2");
+        assertSame(queryParameters.toString(), queryParameters.toString());
+        assertEquals(queryParameters.hashCode(), QueryParameters.parse("a=1&b=2").hashCode());
+    }
+
+    @Test
+    public void testKeepsInsertionOrder() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("z=1&a=2&z=3&m=4");
+        assertEquals("z=1&a=2&z=3&m=4", queryParameters.toString());
+        assertEquals(3, queryParameters.getQueryParameterCount());
+        assertEquals(Arrays.asList("1", "3"), queryParameters.getQueryParameterWithEncodedName("z").getEncodedValues());
+
+        Iterator<QueryParameter> it = queryParameters.iterator();
+        assertEquals("z", it.next().getEncodedName());
+        assertEquals("a", it.next().getEncodedName());
+        assertEquals("m", it.next().getEncodedName());
+    }
+
+    @Test
+    public void testManyParametersUseHashIndex() throws Exception {
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            query.append("p").append(i % 40).append('=').append(i).append('&');
+        }
+        QueryParameters queryParameters = QueryParameters.parse(query);
+        assertEquals(40, queryParameters.getQueryParameterCount());
+        assertEquals(Arrays.asList("7", "47", "87"), queryParameters.getQueryParameterWithEncodedName("p7").getEncodedValues());
+        assertNull(queryParameters.getQueryParameterWithEncodedName("p40"));
+        assertEquals(query.substring(0, query.length() - 1), queryParameters.toString());
+    }
+
+    @Test
+    public void testEqualsDependsOnOrder() throws Exception {
+        assertEquals(QueryParameters.parse("a=1&b=2"), QueryParameters.parse("a=1&b=2"));
+        assertNotEquals(QueryParameters.parse("a=1&b=2"), QueryParameters.parse("b=2&a=1"));
+    }
+
+    @Test
+    public void testIndexedAccess() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("a=1&b%20c=d+e&a=2");
+
+        assertEquals(3, queryParameters.size());
+        assertEquals("b%20c", queryParameters.getEncodedNameAt(1));
+        assertEquals("b c", queryParameters.nameAt(1));
+        assertEquals("d+e", queryParameters.getEncodedValueAt(1));
+        assertEquals("d e", queryParameters.valueAt(1));
+        assertEquals("2", queryParameters.valueAt(2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexedAccessThrowsIndexOutOfBoundsException() throws Exception {
+        QueryParameters.parse("a=1").nameAt(1);
+    }
+
+    @Test
+    public void testIndexOfMatchesDecodedNames() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("a=1&b%20c=2&b+c=3&a%62=4");
+
+        assertEquals(0, queryParameters.indexOf("a"));
+        assertEquals(1, queryParameters.indexOf("b c"));
+        assertEquals(2, queryParameters.indexOf("b c", 2));
+        assertEquals(3, queryParameters.indexOf("ab"));
+        assertEquals(-1, queryParameters.indexOf("b%20c"));
+        assertEquals("3", queryParameters.valueAt(queryParameters.indexOf("b c", 2)));
+        assertEquals("2", queryParameters.getValue("b c"));
+        assertNull(queryParameters.getValue("c"));
+    }
+
+    @Test
+    public void testIndexOfWithoutEncodedNames() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("a=1&b=2&a=3");
+
+        assertEquals(1, queryParameters.indexOf("b"));
+        assertEquals(2, queryParameters.indexOf("a", 1));
+        assertEquals(-1, queryParameters.indexOf("c"));
+        assertEquals("1", queryParameters.getEncodedValue("a"));
+    }
+
+    @Test
+    public void testGetQueryParameterAmongEncodedNames() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("a=1&b+c=2&a=3&d%2Be=4");
+
+        assertEquals(Arrays.asList("1", "3"), queryParameters.getQueryParameter("a").getEncodedValues());
+        assertEquals("2", queryParameters.getQueryParameter("b c").getValue());
+        assertEquals("4", queryParameters.getQueryParameter("d+e").getValue());
+        assertNull(queryParameters.getQueryParameter("b+c"));
+        assertNull(queryParameters.getQueryParameter("f"));
+    }
+
+    @Test
+    public void testGetQueryParameterWithEncodedReservedCharacters() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("a%3Ab=1&c%2Fd=2");
+
+        assertEquals("1", queryParameters.getQueryParameter("a:b").getValue());
+        assertEquals("c%2Fd", queryParameters.getQueryParameter("c/d").getEncodedName());
+        assertEquals(0, queryParameters.indexOf("a:b"));
+        assertNull(queryParameters.getQueryParameter("a%3Ab"));
+    }
+
+    @Test
+    public void testGetQueryParameterWithoutEncodedNames() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("a=1&b=2&a=3");
+
+        assertEquals(Arrays.asList("1", "3"), queryParameters.getQueryParameter("a").getEncodedValues());
+        assertEquals(Arrays.asList("2"), queryParameters.getQueryParameter("b").getEncodedValues());
+        assertNull(queryParameters.getQueryParameter("c"));
+        assertNull(queryParameters.getQueryParameter("a b"));
+    }
+
+    @Test
+    public void testForEachPair() throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        QueryParameters.parse("a=1&b=%20&a=3&c=").forEachPair(new QueryParameterVisitor() {
+            @Override
+            public void visitQueryParameter(CharSequence query, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+                sb.append(query, nameStart, nameEnd).append(':').append(query, valueStart, valueEnd).append(';');
+            }
+        });
+        assertEquals("a:1;b:%20;a:3;c:;", sb.toString());
+    }
+
+    @Test
+    public void testIteratorVisitsEachNameOnce() throws Exception {
+        Iterator<QueryParameter> it = QueryParameters.parse("a=1&b=2&a=3").iterator();
+
+        QueryParameter a = it.next();
+        assertEquals("a", a.getEncodedName());
+        assertEquals(Arrays.asList("1", "3"), a.getEncodedValues());
+        assertEquals("b", it.next().getEncodedName());
+        assertFalse(it.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorThrowsNoSuchElementException() throws Exception {
+        Iterator<QueryParameter> it = QueryParameters.parse("a=1").iterator();
+        it.next();
+        it.next();
+    }
+
+    @Test
+    public void testVisit() throws Exception {
+        final List<String> pairs = new ArrayList<String>();
+        final StringBuilder buffer = new StringBuilder();
+        QueryParameters.visit("a=1&b%20c=d+e&a=&", new QueryParameterVisitor() {
+            @Override
+            public void visitQueryParameter(CharSequence query, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+                buffer.setLength(0);
+                UriEncoding.getDefault().decodeTo(query, valueStart, valueEnd, buffer);
+                pairs.add(query.subSequence(nameStart, nameEnd) + "=" + buffer);
+            }
+        });
+        assertEquals(Arrays.asList("a=1", "b%20c=d e", "a="), pairs);
+    }
+
+    @Test
+    public void testVisitBytesReportsOffsetsInArray() throws Exception {
+        byte[] bytes = "GET /?a=1&bc=2 HTTP/1.1".getBytes("US-ASCII");
+        final List<Integer> offsets = new ArrayList<Integer>();
+        QueryParameters.visit(bytes, 6, 8, new QueryParameterVisitor() {
+            @Override
+            public void visitQueryParameter(CharSequence query, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+                offsets.addAll(Arrays.asList(nameStart, nameEnd, valueStart, valueEnd));
+            }
+        });
+        assertEquals(Arrays.asList(6, 7, 8, 9, 10, 12, 13, 14), offsets);
+    }
+
+    @Test
+    public void testTryVisitStopsAtFirstMalformedPair() throws Exception {
+        final List<Integer> nameStarts = new ArrayList<Integer>();
+        ParseError error = QueryParameters.tryVisit("a=1&b&c=3", new QueryParameterVisitor() {
+            @Override
+            public void visitQueryParameter(CharSequence query, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+                nameStarts.add(nameStart);
+            }
+        });
+        assertEquals(Arrays.asList(0), nameStarts);
+        assertEquals(ParseError.Reason.MISSING_SEPARATOR, error.getReason());
+        assertEquals(5, error.getOffset());
+    }
+
+    @Test(expected = MalformedQueryParametersException.class)
+    public void testVisitThrowsMalformedQueryParametersException() throws Exception {
+        QueryParameters.visit("a=1&b", new QueryParameterVisitor() {
+            @Override
+            public void visitQueryParameter(CharSequence query, int nameStart, int nameEnd, int valueStart, int valueEnd) {
+            }
+        });
+    }
+
+    @Test
+    public void testTypedValues() throws Exception {
+        QueryParameters queryParameters = QueryParameters.parse("page=3&since=1500000000000&exact=false&score=9.5&page=4");
+
+        assertEquals(3, queryParameters.getIntValue("page"));
+        assertEquals(1500000000000L, queryParameters.getLongValue("since"));
+        assertFalse(queryParameters.getBooleanValue("exact"));
+        assertEquals(9.5, queryParameters.getDoubleValue("score"), 0);
+        assertEquals(20, queryParameters.getIntValueOrElse("size", 20));
+        assertEquals(20, queryParameters.getLongValueOrElse("score", 20));
+        assertTrue(queryParameters.getBooleanValueOrElse("missing", true));
+        assertEquals(1.0, queryParameters.getDoubleValueOrElse("missing", 1.0), 0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testGetIntValueThrowsNumberFormatExceptionIfMissing() throws Exception {
+        QueryParameters.parse("a=1").getIntValue("b");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetBooleanValueThrowsIllegalArgumentExceptionIfMissing() throws Exception {
+        QueryParameters.parse("a=1").getBooleanValue("b");
+    }
+}
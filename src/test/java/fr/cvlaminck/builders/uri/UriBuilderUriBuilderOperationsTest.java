@@ -6,6 +6,8 @@ import fr.cvlaminck.builders.exception.MalformedPathException;
 import fr.cvlaminck.builders.exception.MalformedQueryException;
 import fr.cvlaminck.builders.exception.MalformedSchemeException;
 import fr.cvlaminck.builders.path.Path;
+import fr.cvlaminck.builders.path.PathSegment;
+import fr.cvlaminck.builders.query.QueryName;
 import fr.cvlaminck.builders.query.QueryParameters;
 import org.junit.Test;
 
@@ -97,6 +99,17 @@ public class UriBuilderUriBuilderOperationsTest {
         assertNull(uri.getEncodedQuery());
     }
 
+    @Test
+    public void testWithQuery() throws Exception {
+        Uri uri = Uri.newBuilder()
+                .withScheme("http")
+                .withQuery("a=b&c=d e+f#")
+                .build();
+
+        assertEquals("a=b&c=d+e%2Bf%23", uri.getEncodedQuery());
+        assertEquals("a=b&c=d e+f#", uri.getQuery());
+    }
+
     @Test
     public void testWithoutQuery() throws Exception {
         Uri uri = Uri.newBuilder()
@@ -130,6 +143,35 @@ public class UriBuilderUriBuilderOperationsTest {
         assertEquals("test", uri.getQueryParameters().getQueryParameter("test").getEncodedValue());
     }
 
+    @Test
+    public void testWithQueryParametersDerivesEncodedQuery() throws Exception {
+        Uri uri = Uri.newBuilder()
+                .withScheme("http")
+                .withQueryParameters(QueryParameters.newBuilder().appendQueryParameter("a", "b c"))
+                .build();
+
+        assertTrue(uri.hasQuery());
+        assertEquals("a=b+c", uri.getEncodedQuery());
+        assertEquals("http:?a=b+c", uri.toString());
+
+        Uri rebuiltUri = uri.buildUpon()
+                .withQueryParameters(uri.getQueryParameters().buildUpon().appendEncodedQueryParameter("d", "e"))
+                .build();
+        assertEquals(2, rebuiltUri.getQueryParameters().getQueryParameterCount());
+    }
+
+    @Test
+    public void testWithEmptyQueryParameters() throws Exception {
+        Uri uri = Uri.newBuilder()
+                .withScheme("http")
+                .withQueryParameters(QueryParameters.newBuilder())
+                .build();
+
+        assertFalse(uri.hasQuery());
+        assertEquals("", uri.getEncodedQuery());
+        assertNull(uri.getQueryParameters());
+    }
+
     @Test
     public void testWithQueryParametersNull() throws Exception {
         Uri uri = Uri.newBuilder()
@@ -160,6 +202,17 @@ public class UriBuilderUriBuilderOperationsTest {
         assertNull(uri.getEncodedFragment());
     }
 
+    @Test
+    public void testWithFragment() throws Exception {
+        Uri uri = Uri.newBuilder()
+                .withScheme("http")
+                .withFragment("section 1/a?b#c+d")
+                .build();
+
+        assertEquals("section%201/a?b%23c%2Bd", uri.getEncodedFragment());
+        assertEquals("section 1/a?b#c+d", uri.getFragment());
+    }
+
     @Test(expected = MalformedFragmentException.class)
     public void testWithMalformedEncodedFragment() throws Exception {
         Uri.newBuilder()
@@ -199,4 +252,33 @@ public class UriBuilderUriBuilderOperationsTest {
 
         assertEquals("file:///", uri.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAppendPrimitiveValues() throws Exception {
+        Uri uri = Uri.newBuilder()
+                .withScheme("http")
+                .withHost("example.com")
+                .appendPathSegment("users")
+                .appendPathSegment(42L)
+                .appendQueryParameter("page", 2)
+                .appendQueryParameter("since", 1500000000000L)
+                .appendQueryParameter("full", false)
+                .build();
+
+        assertEquals("http://example.com/users/42?page=2&since=1500000000000&full=false", uri.toString());
+    }
+
+    @Test
+    public void testAppendTokens() throws Exception {
+        Uri uri = Uri.newBuilder()
+                .withScheme("https")
+                .withHost("api.example.com")
+                .appendPathSegment(PathSegment.of("v2"))
+                .appendPathSegment(PathSegment.of("accounts"))
+                .appendQueryParameter(QueryName.of("access_token"), "abc")
+                .appendQueryParameter(QueryName.of("limit"), 10)
+                .build();
+
+        assertEquals("https://api.example.com/v2/accounts?access_token=abc&limit=10", uri.toString());
+    }
+}
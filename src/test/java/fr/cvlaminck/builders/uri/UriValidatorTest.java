@@ -1,5 +1,7 @@
 package fr.cvlaminck.builders.uri;
 
+import fr.cvlaminck.builders.exception.MalformedFragmentException;
+import fr.cvlaminck.builders.exception.MalformedQueryException;
 import fr.cvlaminck.builders.exception.MalformedSchemeException;
 import org.junit.Test;
 
@@ -7,6 +9,11 @@ import static org.junit.Assert.*;
 
 public class UriValidatorTest {
 
+    @Test
+    public void testGetInstance() throws Exception {
+        assertSame(UriValidator.getInstance(), UriValidator.getInstance());
+    }
+
     @Test
     public void testValidateScheme() throws Exception {
         new UriValidator().validateScheme("http");
@@ -16,4 +23,69 @@ public class UriValidatorTest {
     public void testValidateSchemeThrowsMalformedSchemeException() throws Exception {
         new UriValidator().validateScheme("http:");
     }
-}
\ No newline at end of file
+
+    @Test(expected = MalformedSchemeException.class)
+    public void testValidateSchemeStartingWithDigit() throws Exception {
+        new UriValidator().validateScheme("1http");
+    }
+
+    @Test
+    public void testValidateQuery() throws Exception {
+        UriValidator validator = new UriValidator();
+
+        validator.validateQuery("a=b&c=%20d");
+        validator.validateQuery("/?:@");
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void testValidateQueryWithEmptyValue() throws Exception {
+        new UriValidator().validateQuery("");
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void testValidateQueryWithTruncatedPctEncodedCharacter() throws Exception {
+        new UriValidator().validateQuery("a=%2");
+    }
+
+    @Test
+    public void testValidateFragment() throws Exception {
+        UriValidator validator = new UriValidator();
+
+        validator.validateFragment("");
+        validator.validateFragment("section-1/?%20");
+    }
+
+    @Test(expected = MalformedFragmentException.class)
+    public void testValidateFragmentWithInvalidValue() throws Exception {
+        new UriValidator().validateFragment("section#1");
+    }
+
+    @Test
+    public void testValidateQueryWith1MBValue() throws Exception {
+        new UriValidator().validateQuery(newQuery(1 << 20));
+    }
+
+    @Test
+    public void testValidateQueryWith16MBValue() throws Exception {
+        new UriValidator().validateQuery(newQuery(16 << 20));
+    }
+
+    @Test(expected = MalformedQueryException.class)
+    public void testValidateQueryWith16MBMalformedValue() throws Exception {
+        new UriValidator().validateQuery(newQuery(16 << 20) + "#");
+    }
+
+    @Test
+    public void testValidateFragmentWith16MBValue() throws Exception {
+        new UriValidator().validateFragment(newQuery(16 << 20));
+    }
+
+    private String newQuery(int length) {
+        String pattern = "payload=eyJpZCI6NDJ9%2B%2F&";
+        StringBuilder sb = new StringBuilder(length + pattern.length());
+        while (sb.length() < length) {
+            sb.append(pattern);
+        }
+        return sb.toString();
+    }
+}
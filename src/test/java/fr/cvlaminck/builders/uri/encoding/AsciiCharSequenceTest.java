@@ -0,0 +1,50 @@
+package fr.cvlaminck.builders.uri.encoding;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class AsciiCharSequenceTest {
+
+    @Test
+    public void testWrapByteArray() throws Exception {
+        byte[] bytes = "GET /index.html HTTP/1.1".getBytes("US-ASCII");
+        CharSequence sequence = AsciiCharSequence.wrap(bytes, 4, 11);
+
+        assertEquals(11, sequence.length());
+        assertEquals('/', sequence.charAt(0));
+        assertEquals("/index.html", sequence.toString());
+        assertEquals("index", sequence.subSequence(1, 6).toString());
+    }
+
+    @Test
+    public void testWrapDirectByteBuffer() throws Exception {
+        byte[] bytes = "GET /index.html HTTP/1.1".getBytes("US-ASCII");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        CharSequence sequence = AsciiCharSequence.wrap(buffer, 4, 11);
+
+        assertEquals("/index.html", sequence.toString());
+        assertEquals(bytes.length, buffer.position());
+    }
+
+    @Test
+    public void testCharAtWithNonAsciiByte() throws Exception {
+        CharSequence sequence = AsciiCharSequence.wrap(new byte[]{(byte) 0xC3, (byte) 0xA9}, 0, 2);
+
+        assertEquals('Ã', sequence.charAt(0));
+        assertEquals('©', sequence.charAt(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testWrapWithInvalidRange() throws Exception {
+        AsciiCharSequence.wrap(new byte[4], 2, 3);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCharAtOutsideOfRange() throws Exception {
+        AsciiCharSequence.wrap(new byte[4], 1, 2).charAt(2);
+    }
+}
@@ -0,0 +1,52 @@
+package fr.cvlaminck.builders.uri.encoding;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CharacterSetTest {
+
+    @Test
+    public void testContains() throws Exception {
+        CharacterSet set = CharacterSet.of(
+                CharacterSpan.newRange('a', 'z'),
+                CharacterSpan.newSingleCharacter('~'));
+
+        assertTrue(set.contains('a'));
+        assertTrue(set.contains('z'));
+        assertTrue(set.contains('~'));
+
+        assertFalse(set.contains('A'));
+        assertFalse(set.contains('{'));
+    }
+
+    @Test
+    public void testContainsWithNonAsciiCharacter() throws Exception {
+        CharacterSet set = CharacterSet.of(CharacterSpan.newRange('a', 'z'));
+
+        assertFalse(set.contains('é'));
+        assertFalse(set.contains('€'));
+        assertFalse(set.contains((char) ('a' + 128)));
+    }
+
+    @Test
+    public void testIndexOfFirstCharacterNotInSet() throws Exception {
+        CharacterSet set = CharacterSet.of(CharacterSpan.newRange('a', 'z'));
+
+        assertEquals(-1, set.indexOfFirstCharacterNotInSet("abc", 0, 3));
+        assertEquals(3, set.indexOfFirstCharacterNotInSet("abcDef", 0, 6));
+        assertEquals(-1, set.indexOfFirstCharacterNotInSet("ABcdEF", 2, 4));
+        assertEquals(-1, set.indexOfFirstCharacterNotInSet("", 0, 0));
+    }
+
+    @Test
+    public void testIndexOfFirstInvalidEncodedCharacter() throws Exception {
+        CharacterSet set = CharacterSet.of(CharacterSpan.newRange('a', 'z'));
+
+        assertEquals(-1, set.indexOfFirstInvalidEncodedCharacter("a%2Fb%e9", 0, 8));
+        assertEquals(1, set.indexOfFirstInvalidEncodedCharacter("a%2G", 0, 4));
+        assertEquals(1, set.indexOfFirstInvalidEncodedCharacter("a%2", 0, 3));
+        assertEquals(1, set.indexOfFirstInvalidEncodedCharacter("a%2F", 0, 3));
+        assertEquals(1, set.indexOfFirstInvalidEncodedCharacter("a%%20", 0, 5));
+    }
+}
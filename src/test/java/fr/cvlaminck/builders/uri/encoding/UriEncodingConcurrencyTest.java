@@ -0,0 +1,119 @@
+package fr.cvlaminck.builders.uri.encoding;
+
+import org.junit.Test;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class UriEncodingConcurrencyTest {
+
+    private static final int NUMBER_OF_THREADS = 32;
+    private static final int NUMBER_OF_ITERATIONS = 2000;
+
+    private static final String[] values = new String[]{
+            "user-42_slug.v2",
+            "This text must be encoded!",
+            "42 €",
+            "Привет, мир! こんにちは",
+            "smile 😀 & more",
+    };
+
+    @Test
+    public void testEncodeAndDecodeFromMultipleThreads() throws Exception {
+        assertEncodeAndDecodeFromMultipleThreads("UTF-8");
+    }
+
+    @Test
+    public void testEncodeAndDecodeFromMultipleThreadsWithCharsetEncoder() throws Exception {
+        assertEncodeAndDecodeFromMultipleThreads("UTF-16");
+    }
+
+    @Test
+    public void testForCharsetFromMultipleThreads() throws Exception {
+        final Charset charset = Charset.forName("UTF-16LE");
+        List<UriEncoding> instances = runConcurrently(new Callable<UriEncoding>() {
+            @Override
+            public UriEncoding call() throws Exception {
+                return UriEncoding.forCharset(charset);
+            }
+        });
+
+        for (UriEncoding instance : instances) {
+            assertSame(instances.get(0), instance);
+        }
+    }
+
+    private void assertEncodeAndDecodeFromMultipleThreads(String charsetName) throws Exception {
+        final UriEncoding uriEncoding = UriEncoding.forCharset(Charset.forName(charsetName));
+        final String[] encodedValues = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            encodedValues[i] = URLEncoder.encode(values[i], charsetName);
+            assertEquals(values[i], URLDecoder.decode(encodedValues[i], charsetName));
+        }
+
+        List<Integer> numberOfErrors = runConcurrently(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                int numberOfErrors = 0;
+                StringBuilder sb = new StringBuilder();
+                for (int iteration = 0; iteration < NUMBER_OF_ITERATIONS; iteration++) {
+                    int i = iteration % values.length;
+                    if (!encodedValues[i].equals(uriEncoding.encode(values[i]))) {
+                        numberOfErrors++;
+                    }
+                    if (!values[i].equals(uriEncoding.decode(encodedValues[i]))) {
+                        numberOfErrors++;
+                    }
+                    sb.setLength(0);
+                    uriEncoding.encodeTo(values[i], sb);
+                    if (!encodedValues[i].contentEquals(sb)) {
+                        numberOfErrors++;
+                    }
+                }
+                return numberOfErrors;
+            }
+        });
+
+        for (Integer numberOfError : numberOfErrors) {
+            assertEquals(0, (int) numberOfError);
+        }
+    }
+
+    /**
+     * Execute the task in NUMBER_OF_THREADS threads that all start at the same time.
+     */
+    private <T> List<T> runConcurrently(final Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        try {
+            final CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<Future<T>>();
+            for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+                futures.add(executor.submit(new Callable<T>() {
+                    @Override
+                    public T call() throws Exception {
+                        startSignal.await();
+                        return task.call();
+                    }
+                }));
+            }
+            startSignal.countDown();
+            List<T> results = new ArrayList<T>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package fr.cvlaminck.builders.uri.encoding;
 
+import fr.cvlaminck.builders.exception.MissingCharsetException;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
 import org.junit.runners.MethodSorters;
 
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
@@ -48,6 +50,26 @@ public class UriEncodingTest {
         UriEncoding.setDefaultCharset(UriEncoding.DEFAULT_CHARSET);
     }
 
+    @Test
+    public void testForCharsetReturnsSharedInstance() throws Exception {
+        UriEncoding uriEncoding = UriEncoding.forCharset(Charset.forName("ISO-8859-1"));
+
+        assertSame(uriEncoding, UriEncoding.forCharset(Charset.forName("ISO-8859-1")));
+        assertEquals(Charset.forName("ISO-8859-1"), uriEncoding.getCharset());
+        assertNotSame(uriEncoding, UriEncoding.forCharset(Charset.forName("UTF-8")));
+    }
+
+    @Test
+    public void testGetDefaultReturnsSharedInstance() throws Exception {
+        assertSame(UriEncoding.getDefault(), UriEncoding.getDefault());
+        assertSame(UriEncoding.forCharset(Charset.forName(UriEncoding.DEFAULT_CHARSET)), UriEncoding.getDefault());
+    }
+
+    @Test(expected = MissingCharsetException.class)
+    public void testSetDefaultCharsetWithUnknownCharset() throws Exception {
+        UriEncoding.setDefaultCharset("UNKNOWN-CHARSET");
+    }
+
     @Test
     public void testEncode() throws Exception {
         String text = "This text must be encoded!";
@@ -72,6 +94,100 @@ public class UriEncodingTest {
         assertEquals(encodedUsingJavaNet, encodedByUriEncoding);
     }
 
+    @Test
+    public void testEncodeWithSurrogatePair() throws Exception {
+        String text = "smile \uD83D\uDE00!";
+        String encodedText = "smile+%F0%9F%98%80%21";
+
+        String encodedUsingJavaNet = URLEncoder.encode(text, "UTF-8");
+        String encodedByUriEncoding = new UriEncoding(Charset.forName("UTF-8")).encode(text);
+
+        assertEquals(encodedText, encodedByUriEncoding);
+        assertEquals(encodedUsingJavaNet, encodedByUriEncoding);
+    }
+
+    @Test
+    public void testEncodeWithUnpairedSurrogate() throws Exception {
+        String text = "a\uD83Db\uDE00";
+
+        String encodedUsingJavaNet = URLEncoder.encode(text, "UTF-8");
+        String encodedByUriEncoding = new UriEncoding(Charset.forName("UTF-8")).encode(text);
+
+        assertEquals("a%3Fb%3F", encodedByUriEncoding);
+        assertEquals(encodedUsingJavaNet, encodedByUriEncoding);
+    }
+
+    @Test
+    public void testEncodeWithNonLatinCharacters() throws Exception {
+        String text = "Привет, мир! こんにちは \u00e9\u07ff\u0800\uffff";
+
+        String encodedUsingJavaNet = URLEncoder.encode(text, "UTF-8");
+        String encodedByUriEncoding = new UriEncoding(Charset.forName("UTF-8")).encode(text);
+
+        assertEquals(encodedUsingJavaNet, encodedByUriEncoding);
+    }
+
+    @Test
+    public void testEncodeWithOtherCharsets() throws Exception {
+        String text = "42 € \uD83D\uDE00 été";
+
+        for (String charset : new String[]{"ISO-8859-1", "UTF-16", "UTF-16LE", "Shift_JIS"}) {
+            String encodedUsingJavaNet = URLEncoder.encode(text, charset);
+            String encodedByUriEncoding = new UriEncoding(Charset.forName(charset)).encode(text);
+
+            assertEquals(encodedUsingJavaNet, encodedByUriEncoding);
+        }
+    }
+
+    @Test
+    public void testEncodeWithProfiles() throws Exception {
+        UriEncoding uriEncoding = new UriEncoding(Charset.forName("UTF-8"));
+        String text = "a b+c/d?e=f&g#h:i@j!é";
+
+        assertEquals("a+b%2Bc%2Fd%3Fe%3Df%26g%23h%3Ai%40j%21%C3%A9", uriEncoding.encode(text, EncodingProfile.FORM));
+        assertEquals("a%20b%2Bc%2Fd%3Fe=f&g%23h:i@j!%C3%A9", uriEncoding.encode(text, EncodingProfile.PATH_SEGMENT));
+        assertEquals("a+b%2Bc/d?e=f&g%23h:i@j!%C3%A9", uriEncoding.encode(text, EncodingProfile.QUERY));
+        assertEquals("a+b%2Bc/d?e%3Df%26g%23h:i@j!%C3%A9", uriEncoding.encode(text, EncodingProfile.QUERY_PARAMETER_NAME));
+        assertEquals("a+b%2Bc/d?e=f%26g%23h:i@j!%C3%A9", uriEncoding.encode(text, EncodingProfile.QUERY_PARAMETER_VALUE));
+        assertEquals("a%20b%2Bc/d?e=f&g%23h:i@j!%C3%A9", uriEncoding.encode(text, EncodingProfile.FRAGMENT));
+        assertEquals("a%20b%2Bc%2Fd%3Fe=f&g%23h:i%40j!%C3%A9", uriEncoding.encode(text, EncodingProfile.USER_INFORMATION));
+        assertEquals("a%20b%2Bc%2Fd%3Fe=f&g%23h%3Ai%40j!%C3%A9", uriEncoding.encode(text, EncodingProfile.HOST));
+
+        for (EncodingProfile profile : EncodingProfile.values()) {
+            assertEquals(text, uriEncoding.decode(uriEncoding.encode(text, profile)));
+        }
+    }
+
+    @Test
+    public void testEncodeReturnsInputIfNothingToEncode() throws Exception {
+        String text = "user-42_slug.v2~";
+
+        assertSame(text, new UriEncoding(Charset.forName("UTF-8")).encode(text));
+    }
+
+    @Test
+    public void testEncodeTo() throws Exception {
+        UriEncoding uriEncoding = new UriEncoding(Charset.forName("UTF-8"));
+        StringBuilder output = new StringBuilder("query=");
+
+        uriEncoding.encodeTo("42 €", output);
+        uriEncoding.encodeTo("&", output);
+        uriEncoding.encodeTo(null, output);
+
+        assertEquals("query=42+%E2%82%AC%26", output.toString());
+    }
+
+    @Test
+    public void testEncodeToAppendable() throws Exception {
+        UriEncoding uriEncoding = new UriEncoding(Charset.forName("UTF-8"));
+        Appendable output = new StringWriter();
+
+        uriEncoding.encodeTo("slug", output);
+        uriEncoding.encodeTo(new StringBuilder("42 €"), output);
+
+        assertEquals("slug42+%E2%82%AC", output.toString());
+    }
+
     //@Test
     public void testEncodePerformance() throws Exception {
         long numberOfEncode = 1000000;
@@ -117,6 +233,70 @@ public class UriEncodingTest {
         assertEquals(decodedUsingJavaNet, decodedByUriEncoding);
     }
 
+    @Test
+    public void testDecodeReturnsInputIfNothingToDecode() throws Exception {
+        String text = "user-42_slug.v2~!";
+
+        assertSame(text, new UriEncoding(Charset.forName("UTF-8")).decode(text));
+    }
+
+    @Test
+    public void testDecodeWithEncodedCharacterAfterFirstCharacter() throws Exception {
+        String text = "slug%21+42";
+        String decodedText = "slug! 42";
+
+        assertEquals(decodedText, new UriEncoding(Charset.forName("UTF-8")).decode(text));
+    }
+
+    @Test
+    public void testDecodeTo() throws Exception {
+        UriEncoding uriEncoding = new UriEncoding(Charset.forName("UTF-8"));
+        StringBuilder output = new StringBuilder("value: ");
+
+        uriEncoding.decodeTo("42+%E2%82%AC", output);
+        uriEncoding.decodeTo("!", output);
+        uriEncoding.decodeTo(null, output);
+
+        assertEquals("value: 42 €!", output.toString());
+    }
+
+    @Test
+    public void testDecodeToAppendable() throws Exception {
+        UriEncoding uriEncoding = new UriEncoding(Charset.forName("UTF-8"));
+        Appendable output = new StringWriter();
+
+        uriEncoding.decodeTo("slug", output);
+        uriEncoding.decodeTo(new StringBuilder("42+%E2%82%AC"), output);
+
+        assertEquals("slug42 €", output.toString());
+    }
+
+    @Test
+    public void testDecodeRangeTo() throws Exception {
+        UriEncoding uriEncoding = new UriEncoding(Charset.forName("UTF-8"));
+        StringBuilder output = new StringBuilder();
+
+        uriEncoding.decodeTo("a=42+%E2%82%AC&b=%E2%82%AC", 2, 14, output);
+        assertEquals("42 €", output.toString());
+
+        output.setLength(0);
+        uriEncoding.decodeTo("a=slug&b", 2, 6, output);
+        assertEquals("slug", output.toString());
+    }
+
+    @Test
+    public void testDecodeRangeEndingWithTruncatedEscape() throws Exception {
+        UriEncoding uriEncoding = new UriEncoding(Charset.forName("UTF-8"));
+        StringBuilder output = new StringBuilder();
+
+        uriEncoding.decodeTo("a=%41%4&b=%42", 2, 7, output);
+        assertEquals("A%4", output.toString());
+
+        output.setLength(0);
+        uriEncoding.decodeTo("a=%4", output);
+        assertEquals("a=%4", output.toString());
+    }
+
     //@Test
     public void testDecodePerformance() throws Exception {
         long numberOfDecode = 1000000;
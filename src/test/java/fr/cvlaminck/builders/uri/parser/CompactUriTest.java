@@ -0,0 +1,110 @@
+package fr.cvlaminck.builders.uri.parser;
+
+import fr.cvlaminck.builders.uri.Uri;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CompactUriTest {
+
+    private static Uri parseCompact(CharSequence uri) {
+        UriParserOptions options = UriParserOptions.getDefault();
+        options.compact = true;
+        return new UriParser(options).parse(uri);
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        Uri uri = parseCompact("https://user@example.com:8443/a/b%20c/d?e=f&g=h#i");
+        assertTrue(uri instanceof CompactUri);
+        assertEquals("https", uri.getScheme());
+        assertEquals("user", uri.getAuthority().getUserInformation());
+        assertEquals("example.com", uri.getAuthority().getHost());
+        assertEquals(Integer.valueOf(8443), uri.getAuthority().getPort());
+        assertEquals(3, uri.getPath().getPathSegmentCount());
+        assertEquals("b c", uri.getPath().getPathSegment(1));
+        assertEquals("h", uri.getQueryParameters().getQueryParameter("g").getValue());
+        assertEquals("i", uri.getFragment());
+        assertEquals("https://user@example.com:8443/a/b%20c/d?e=f&g=h#i", uri.toString());
+    }
+
+    @Test
+    public void testComponentsAreNotKept() throws Exception {
+        Uri uri = parseCompact("http://localhost/a");
+        assertNotSame(uri.getPath(), uri.getPath());
+        assertNotSame(uri.toString(), uri.toString());
+    }
+
+    @Test
+    public void testParseLongUri() throws Exception {
+        char[] value = new char[70000];
+        Arrays.fill(value, 'a');
+        String uri = "http://localhost/a?q=" + new String(value) + "#b";
+        Uri compactUri = parseCompact(uri);
+        assertEquals(uri, compactUri.toString());
+        assertEquals(value.length, compactUri.getQueryParameters().getQueryParameter("q").getEncodedValue().length());
+        assertEquals("b", compactUri.getEncodedFragment());
+    }
+
+    @Test
+    public void testParseUriWithCharacterNotFittingInOneByte() throws Exception {
+        StringBuilder source = new StringBuilder("http://[€]/a");
+        Uri uri = parseCompact(source);
+        source.setLength(0);
+        assertTrue(uri instanceof LazyUri);
+        assertEquals("[€]", uri.getAuthority().getEncodedHost());
+        assertEquals("a", uri.getPath().getPathSegment(0));
+    }
+
+    @Test
+    public void testSameAsEagerUri() throws Exception {
+        String[] uris = new String[]{
+                "https://user@example.com:8443/a/b%20c/d?e=f&g=h#i",
+                "a:b#",
+                "http://@host/",
+                "http://host:080/",
+                "http://host",
+                "a:/b/",
+                "a:b/",
+                "a:/",
+                "http://host/a/?x=1&y=%20#"
+        };
+        for (String sUri : uris) {
+            Uri eagerUri = Uri.parse(sUri);
+            Uri compactUri = parseCompact(sUri);
+            assertTrue(sUri, compactUri instanceof CompactUri);
+            assertEquals(sUri, eagerUri.toString(), compactUri.toString());
+            assertEquals(sUri, eagerUri.hashCode(), compactUri.hashCode());
+            assertEquals(sUri, eagerUri, compactUri);
+            assertEquals(sUri, compactUri, eagerUri);
+            assertEquals(sUri, compactUri, parseCompact(eagerUri.toString()));
+            assertEquals(sUri, eagerUri.getAuthority(), compactUri.getAuthority());
+            assertEquals(sUri, eagerUri.getPath(), compactUri.getPath());
+        }
+    }
+
+    @Test
+    public void testNotEquals() throws Exception {
+        Uri uri = parseCompact("http://host/a");
+        assertNotEquals(uri, parseCompact("http://host/b"));
+        assertNotEquals(uri, Uri.parse("http://host/b"));
+        assertNotEquals(uri, parseCompact("http://host/ab"));
+        assertNotEquals(uri, "http://host/a");
+        assertNotEquals(uri, null);
+    }
+
+    @Test
+    public void testHashBasedCollections() throws Exception {
+        Set<Uri> uris = new HashSet<Uri>();
+        uris.add(parseCompact("http://host/a"));
+        uris.add(parseCompact("http://host/a"));
+        uris.add(Uri.parse("http://host/a"));
+        uris.add(parseCompact("http://@host/a"));
+        assertEquals(1, uris.size());
+        assertTrue(uris.contains(Uri.parse("http://host/a")));
+    }
+}
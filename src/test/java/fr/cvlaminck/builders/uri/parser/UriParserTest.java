@@ -1,5 +1,11 @@
 package fr.cvlaminck.builders.uri.parser;
 
+import fr.cvlaminck.builders.exception.MalformedAuthorityException;
+import fr.cvlaminck.builders.exception.MalformedFragmentException;
+import fr.cvlaminck.builders.exception.MalformedIpLiteralException;
+import fr.cvlaminck.builders.exception.MalformedPathSegmentException;
+import fr.cvlaminck.builders.exception.MalformedQueryException;
+import fr.cvlaminck.builders.exception.MalformedRegisteredNameException;
 import fr.cvlaminck.builders.exception.MalformedSchemeException;
 import fr.cvlaminck.builders.exception.MalformedUriException;
 import fr.cvlaminck.builders.uri.Uri;
@@ -47,6 +53,93 @@ public class UriParserTest {
         assertEquals(exceptionClass, parseException.getClass());
     }
 
+    @Test
+    public void testParseLazilyValidUri() throws Exception {
+        if (!isValid) {
+            return;
+        }
+        Uri eagerUri = new UriParser().parse(uri);
+        Uri lazyUri = Uri.parseLazily(uri);
+        assertEquals(eagerUri.getScheme(), lazyUri.getScheme());
+        assertEquals(eagerUri.hasAuthority(), lazyUri.hasAuthority());
+        assertEquals(String.valueOf(eagerUri.getAuthority()), String.valueOf(lazyUri.getAuthority()));
+        assertEquals(eagerUri.getPath().toString(), lazyUri.getPath().toString());
+        assertEquals(eagerUri.hasQuery(), lazyUri.hasQuery());
+        assertEquals(eagerUri.getEncodedQuery(), lazyUri.getEncodedQuery());
+        assertEquals(String.valueOf(eagerUri.getQueryParameters()), String.valueOf(lazyUri.getQueryParameters()));
+        assertEquals(eagerUri.getEncodedFragment(), lazyUri.getEncodedFragment());
+        assertEquals(eagerUri.toString(), lazyUri.toString());
+    }
+
+    @Test
+    public void testParseLazilyInvalidUri() throws Exception {
+        if (isValid) {
+            return;
+        }
+        Exception parseException = null;
+        try {
+            Uri.parseLazily(uri);
+        } catch (Exception e) {
+            parseException = e;
+        }
+        assertEquals(exceptionClass, parseException.getClass());
+    }
+
+    @Test
+    public void testParseCompactValidUri() throws Exception {
+        if (!isValid) {
+            return;
+        }
+        Uri eagerUri = new UriParser().parse(uri);
+        Uri compactUri = Uri.parseCompact(uri);
+        assertEquals(eagerUri.getScheme(), compactUri.getScheme());
+        assertEquals(eagerUri.hasAuthority(), compactUri.hasAuthority());
+        assertEquals(eagerUri.getAuthority(), compactUri.getAuthority());
+        assertEquals(eagerUri.getPath(), compactUri.getPath());
+        assertEquals(eagerUri.hasQuery(), compactUri.hasQuery());
+        assertEquals(eagerUri.getEncodedQuery(), compactUri.getEncodedQuery());
+        assertEquals(eagerUri.getQueryParameters(), compactUri.getQueryParameters());
+        assertEquals(eagerUri.getEncodedFragment(), compactUri.getEncodedFragment());
+        assertEquals(eagerUri.getFragment(), compactUri.getFragment());
+        assertEquals(eagerUri.toString(), compactUri.toString());
+        assertEquals(eagerUri, compactUri);
+    }
+
+    @Test
+    public void testParseCompactInvalidUri() throws Exception {
+        if (isValid) {
+            return;
+        }
+        Exception parseException = null;
+        try {
+            Uri.parseCompact(uri);
+        } catch (Exception e) {
+            parseException = e;
+        }
+        assertEquals(exceptionClass, parseException.getClass());
+    }
+
+    @Test
+    public void testTryParse() throws Exception {
+        ParseResult<Uri> result = new UriParser().tryParse(uri);
+        assertEquals(isValid, result.isSuccess());
+        if (!isValid) {
+            assertNull(result.getValue());
+            assertEquals(exceptionClass, result.getError().toException().getClass());
+        }
+    }
+
+    @Test
+    public void testTryParseLazily() throws Exception {
+        UriParserOptions options = UriParserOptions.getDefault();
+        options.lazy = true;
+        ParseResult<Uri> result = new UriParser(options).tryParse(uri);
+        assertEquals(isValid, result.isSuccess());
+        if (!isValid) {
+            assertEquals(exceptionClass, result.getError().toException().getClass());
+        }
+    }
+
     @Parameters(name = "Uri: {0}, isValid: {1}")
     public static Iterable<Object[]> data() {
         return Arrays.asList(new Object[][]{
@@ -63,6 +156,20 @@ public class UriParserTest {
                 {null, false, MalformedUriException.class},
                 {"", false, MalformedUriException.class},
                 {"localhost", false, MalformedSchemeException.class},
+                {"1http://localhost", false, MalformedSchemeException.class},
+                {"http://localhost:port/", false, MalformedAuthorityException.class},
+                {"http://localhost:/", false, MalformedAuthorityException.class},
+                {"http://[::1/", false, MalformedIpLiteralException.class},
+                {"http://localhost//test", false, MalformedPathSegmentException.class},
+                {"http://localhost?", false, MalformedQueryException.class},
+                {"http://localhost?query%2", false, MalformedQueryException.class},
+                {"http://user@localhost:8080/test/?a=%20&b=/c#%20fragment", true, null},
+                {"http://@localhost:0080#", true, null},
+                {"http://localhost:65536", false, MalformedAuthorityException.class},
+                {"http://local host", false, MalformedRegisteredNameException.class},
+                {"http://[vA:a]", false, MalformedIpLiteralException.class},
+                {"http://localhost#a#b", false, MalformedFragmentException.class},
+                {"mailto:a%2@example.com", false, MalformedPathSegmentException.class},
                 //Examples from RFC3986
                 {"ftp://ftp.is.co.za/rfc/rfc1808.txt", true, null},
                 {"http://www.ietf.org/rfc/rfc2396.txt", true, null},